@@ -0,0 +1,59 @@
+package com.nosh.Clothing.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosh.Clothing.web.AdaptiveConcurrencyLimit;
+import com.nosh.Clothing.web.AdmissionControlFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class AdmissionControlConfig {
+
+    @Value("${admission.checkout.max-limit:40}")
+    private int checkoutMaxLimit;
+
+    @Value("${admission.checkout.target-latency-ms:500}")
+    private long checkoutTargetLatencyMs;
+
+    @Value("${admission.browse.max-limit:150}")
+    private int browseMaxLimit;
+
+    @Value("${admission.browse.target-latency-ms:200}")
+    private long browseTargetLatencyMs;
+
+    @Value("${admission.admin.max-limit:10}")
+    private int adminMaxLimit;
+
+    @Value("${admission.admin.target-latency-ms:2000}")
+    private long adminTargetLatencyMs;
+
+    // Ahead of Spring Security, so shed requests cost no token parsing
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        List<AdmissionControlFilter.RouteClass> routeClasses = List.of(
+                new AdmissionControlFilter.RouteClass("checkout", List.of("/api/orders"),
+                        limit(checkoutMaxLimit, checkoutTargetLatencyMs), meterRegistry),
+                new AdmissionControlFilter.RouteClass("browse", List.of("/api/products"),
+                        limit(browseMaxLimit, browseTargetLatencyMs), meterRegistry),
+                new AdmissionControlFilter.RouteClass("admin", List.of("/api/admin"),
+                        limit(adminMaxLimit, adminTargetLatencyMs), meterRegistry));
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(routeClasses, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // Starts at half the ceiling and never drops below two, so a class can always make progress
+    private static AdaptiveConcurrencyLimit limit(int maxLimit, long targetLatencyMs) {
+        int minLimit = Math.min(2, maxLimit);
+        return new AdaptiveConcurrencyLimit(Math.max(minLimit, maxLimit / 2), minLimit, maxLimit,
+                Duration.ofMillis(targetLatencyMs).toNanos());
+    }
+}
@@ -1,6 +1,9 @@
 package com.nosh.Clothing.config;
 
+import com.nosh.Clothing.model.Product;
+import com.nosh.Clothing.model.ProductVariant;
 import com.nosh.Clothing.model.User;
+import com.nosh.Clothing.repository.ProductRepository;
 import com.nosh.Clothing.repository.UserRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -11,6 +14,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Component
 public class DataLoader implements CommandLineRunner {
@@ -18,6 +22,9 @@ public class DataLoader implements CommandLineRunner {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -27,6 +34,9 @@ public class DataLoader implements CommandLineRunner {
     @Override
     @Transactional
     public void run(String... args) throws Exception {
+        alignIdSequences();
+        migrateSizeVariants();
+
         // Create admin user if not exists
         if (!userRepository.existsByEmail("admin@localwear.com")) {
             User admin = new User();
@@ -42,6 +52,7 @@ public class DataLoader implements CommandLineRunner {
         if (getProductCount() == 0) {
             createSampleProducts();
         }
+        backfillChangeSequence();
     }
 
     private Long getProductCount() {
@@ -49,41 +60,105 @@ public class DataLoader implements CommandLineRunner {
                 .getSingleResult();
     }
 
+    // Products written before the change feed existed, and the seeded samples, enter it once here
+    private void backfillChangeSequence() {
+        entityManager.createNativeQuery("CREATE SEQUENCE IF NOT EXISTS product_change_seq").executeUpdate();
+        entityManager.createNativeQuery("""
+                UPDATE products SET change_seq = nextval('product_change_seq')
+                WHERE change_seq IS NULL
+                """).executeUpdate();
+    }
+
+    // Tables created before the switch to sequence ids already hold rows numbered by their identity
+    // column. Move each new sequence past those ids once so the pooled generator never hands them out again.
+    private void alignIdSequences() {
+        for (String table : List.of("products", "product_variants", "orders", "order_items")) {
+            String alignSequence = """
+                SELECT setval('%1$s_seq', m.max_id)
+                FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM %1$s) m
+                WHERE m.max_id >= (SELECT last_value FROM %1$s_seq)
+            """.formatted(table);
+            entityManager.createNativeQuery(alignSequence).getResultList();
+        }
+    }
+
+    // Products created before per-size stock kept a sizes JSON blob and one quantity_in_stock counter.
+    // Split each counter evenly across its sizes in one INSERT ... SELECT (earlier sizes take the
+    // remainder), give products without usable sizes a single ONE SIZE variant, then let the legacy
+    // columns go null so new products can be inserted. The legacy columns are left in place, unused.
+    // That last step doubles as the marker: once quantity_in_stock is nullable, or gone, this has run.
+    private void migrateSizeVariants() {
+        List<?> legacyColumns = entityManager.createNativeQuery("""
+                SELECT q.column_name FROM information_schema.columns q
+                JOIN information_schema.columns s
+                  ON s.table_schema = q.table_schema AND s.table_name = q.table_name AND s.column_name = 'sizes'
+                WHERE q.table_schema = current_schema() AND q.table_name = 'products'
+                  AND q.column_name = 'quantity_in_stock' AND q.is_nullable = 'NO'
+                """).getResultList();
+        if (legacyColumns.isEmpty()) {
+            return;
+        }
+
+        entityManager.createNativeQuery("""
+                INSERT INTO product_variants (id, product_id, size, stock)
+                SELECT nextval('product_variants_seq'), p.id, s.size,
+                       p.quantity_in_stock / s.n + CASE WHEN s.ord <= p.quantity_in_stock % s.n THEN 1 ELSE 0 END
+                FROM products p
+                CROSS JOIN LATERAL (
+                    SELECT d.size, ROW_NUMBER() OVER (ORDER BY d.ord) AS ord, COUNT(*) OVER () AS n
+                    FROM (
+                        SELECT LEFT(TRIM(e.size), 32) AS size, MIN(e.ord) AS ord
+                        FROM jsonb_array_elements_text(
+                                CASE WHEN p.sizes ~ '^\\s*\\[' THEN p.sizes::jsonb ELSE '[]'::jsonb END
+                             ) WITH ORDINALITY AS e(size, ord)
+                        WHERE TRIM(e.size) <> ''
+                        GROUP BY LEFT(TRIM(e.size), 32)
+                    ) d
+                ) s
+                WHERE p.quantity_in_stock IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM product_variants v WHERE v.product_id = p.id)
+                """).executeUpdate();
+
+        entityManager.createNativeQuery("""
+                INSERT INTO product_variants (id, product_id, size, stock)
+                SELECT nextval('product_variants_seq'), p.id, :oneSize, p.quantity_in_stock
+                FROM products p
+                WHERE p.quantity_in_stock IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM product_variants v WHERE v.product_id = p.id)
+                """).setParameter("oneSize", ProductVariant.ONE_SIZE).executeUpdate();
+
+        entityManager.createNativeQuery("""
+                ALTER TABLE products ALTER COLUMN quantity_in_stock DROP NOT NULL
+                """).executeUpdate();
+    }
+
     private void createSampleProducts() {
-        // Insert products using native queries to handle JSONB properly
-        String insertProduct1 = """
-            INSERT INTO products (name, description, price, category, image_url, sizes, quantity_in_stock, created_at, updated_at)
-            VALUES (?, ?, ?, ?, ?, ?::jsonb, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
-        """;
-
-        entityManager.createNativeQuery(insertProduct1)
-                .setParameter(1, "Classic T-Shirt")
-                .setParameter(2, "Comfortable cotton t-shirt perfect for everyday wear")
-                .setParameter(3, new BigDecimal("29.99"))
-                .setParameter(4, "T-Shirts")
-                .setParameter(5, "https://example.com/tshirt.jpg")
-                .setParameter(6, "[\"S\", \"M\", \"L\", \"XL\"]")
-                .setParameter(7, 100)
-                .executeUpdate();
-
-        entityManager.createNativeQuery(insertProduct1)
-                .setParameter(1, "Denim Jeans")
-                .setParameter(2, "High-quality denim jeans with perfect fit")
-                .setParameter(3, new BigDecimal("79.99"))
-                .setParameter(4, "Jeans")
-                .setParameter(5, "https://example.com/jeans.jpg")
-                .setParameter(6, "[\"28\", \"30\", \"32\", \"34\", \"36\"]")
-                .setParameter(7, 50)
-                .executeUpdate();
-
-        entityManager.createNativeQuery(insertProduct1)
-                .setParameter(1, "Summer Dress")
-                .setParameter(2, "Elegant summer dress for special occasions")
-                .setParameter(3, new BigDecimal("59.99"))
-                .setParameter(4, "Dresses")
-                .setParameter(5, "https://example.com/dress.jpg")
-                .setParameter(6, "[\"XS\", \"S\", \"M\", \"L\", \"XL\"]")
-                .setParameter(7, 30)
-                .executeUpdate();
+        // Saved as one JDBC batch; ids come from the pooled sequence so inserts can be grouped
+        productRepository.saveAll(List.of(
+                sampleProduct("Classic T-Shirt", "Comfortable cotton t-shirt perfect for everyday wear",
+                        "29.99", "T-Shirts", "https://example.com/tshirt.jpg", List.of("S", "M", "L", "XL"), 25),
+                sampleProduct("Denim Jeans", "High-quality denim jeans with perfect fit",
+                        "79.99", "Jeans", "https://example.com/jeans.jpg", List.of("28", "30", "32", "34", "36"), 10),
+                sampleProduct("Summer Dress", "Elegant summer dress for special occasions",
+                        "59.99", "Dresses", "https://example.com/dress.jpg", List.of("XS", "S", "M", "L", "XL"), 6)
+        ));
+    }
+
+    private Product sampleProduct(String name, String description, String price, String category,
+                                  String imageUrl, List<String> sizes, int stockPerSize) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(new BigDecimal(price));
+        product.setCategory(category);
+        product.setImageUrl(imageUrl);
+        for (String size : sizes) {
+            ProductVariant variant = new ProductVariant();
+            variant.setProduct(product);
+            variant.setSize(size);
+            variant.setStock(stockPerSize);
+            product.getVariants().add(variant);
+        }
+        return product;
     }
 }
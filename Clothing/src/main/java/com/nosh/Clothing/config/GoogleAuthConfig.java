@@ -0,0 +1,25 @@
+package com.nosh.Clothing.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosh.Clothing.security.GoogleSigningKeySource;
+import com.nosh.Clothing.security.JwksSigningKeySource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+
+@Configuration
+public class GoogleAuthConfig {
+
+    @Value("${google.jwks-uri}")
+    private String jwksUri;
+
+    // Set google.signing-keys to anything else to supply your own GoogleSigningKeySource bean
+    @Bean
+    @ConditionalOnProperty(name = "google.signing-keys", havingValue = "jwks", matchIfMissing = true)
+    public GoogleSigningKeySource googleSigningKeySource(ObjectMapper objectMapper) {
+        return new JwksSigningKeySource(URI.create(jwksUri), objectMapper);
+    }
+}
@@ -0,0 +1,26 @@
+package com.nosh.Clothing.config;
+
+import com.nosh.Clothing.security.InMemoryRateLimitStore;
+import com.nosh.Clothing.security.RateLimitStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    // Set rate-limit.store to anything else to supply a shared RateLimitStore bean
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.store", havingValue = "memory", matchIfMissing = true)
+    public RateLimitStore rateLimitStore(MeterRegistry meterRegistry) {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(maxBuckets);
+        Gauge.builder("http.ratelimit.buckets", store, InMemoryRateLimitStore::size).register(meterRegistry);
+        return store;
+    }
+}
@@ -1,24 +1,40 @@
 package com.nosh.Clothing.controller;
 
+import com.nosh.Clothing.dto.request.HotStockRequest;
 import com.nosh.Clothing.dto.request.OrderStatusUpdateRequest;
 import com.nosh.Clothing.dto.request.ProductCreateRequest;
 import com.nosh.Clothing.dto.request.ProductUpdateRequest;
 import com.nosh.Clothing.dto.response.OrderResponse;
+import com.nosh.Clothing.dto.response.OrderSummaryResponse;
+import com.nosh.Clothing.dto.response.ProductImportResponse;
 import com.nosh.Clothing.dto.response.ProductResponse;
+import com.nosh.Clothing.service.AuthService;
 import com.nosh.Clothing.service.CloudinaryService;
+import com.nosh.Clothing.service.FileFormat;
+import com.nosh.Clothing.service.HotStockService;
+import com.nosh.Clothing.service.OrderExportService;
 import com.nosh.Clothing.service.OrderService;
+import com.nosh.Clothing.service.ProductExportService;
+import com.nosh.Clothing.service.ProductImportService;
 import com.nosh.Clothing.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -35,10 +51,53 @@ public class AdminController {
     @Autowired
     private CloudinaryService cloudinaryService;
 
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private HotStockService hotStockService;
+
     @GetMapping("/orders")
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
-        List<OrderResponse> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<Page<OrderSummaryResponse>> getAllOrders(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<OrderSummaryResponse> orders = orderService.getAllOrders(page, size);
+        return ResponseEntity.ok()
+                .cacheControl(HttpCaching.LIVE)
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(orders);
+    }
+
+    @GetMapping("/orders/{id}")
+    public ResponseEntity<OrderResponse> getOrder(@PathVariable Long id) {
+        OrderResponse order = orderService.getOrder(id);
+        return ResponseEntity.ok()
+                .cacheControl(HttpCaching.LIVE)
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(order);
+    }
+
+    // Order lines for finance, written chunk by chunk; from and to are inclusive dates (yyyy-MM-dd)
+    @GetMapping("/orders/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        FileFormat fileFormat = FileFormat.fromParameter(format);
+        OrderExportService.Filter filter = orderExportService.filter(from, to, status);
+        return streamedFile("orders", fileFormat, acceptEncoding,
+                out -> orderExportService.exportOrders(out, fileFormat, filter));
     }
 
     @PatchMapping("/orders/{id}/status")
@@ -49,12 +108,38 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/users/{id}/revoke-tokens")
+    public ResponseEntity<Void> revokeUserTokens(@PathVariable Long id) {
+        authService.revokeTokens(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/products")
     public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody ProductCreateRequest request) {
         ProductResponse response = productService.createProduct(request);
         return ResponseEntity.ok(response);
     }
 
+    // Streams the request body; send text/csv with a header row, or application/x-ndjson with one product per line
+    @PostMapping(value = "/products/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        FileFormat format = FileFormat.fromMediaType(contentType);
+        ProductImportResponse response = productImportService.importProducts(body, format);
+        return ResponseEntity.ok(response);
+    }
+
+    // Full catalog for feed partners, written while it is read; gzip when the client accepts it
+    @GetMapping("/products/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        FileFormat fileFormat = FileFormat.fromParameter(format);
+        return streamedFile("products", fileFormat, acceptEncoding,
+                out -> productExportService.exportProducts(out, fileFormat));
+    }
+
     @PutMapping("/products/{id}")
     public ResponseEntity<ProductResponse> updateProduct(
             @PathVariable Long id,
@@ -63,6 +148,13 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    // Flash-sale mode for a limited drop; see HotStockService
+    @PutMapping("/products/{id}/hot-stock")
+    public ResponseEntity<Void> setHotStock(@PathVariable Long id, @Valid @RequestBody HotStockRequest request) {
+        hotStockService.setHotStock(id, request.getEnabled());
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/products/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
@@ -104,4 +196,24 @@ public class AdminController {
         }
     }
 
+    // Download headers for an export; the body is gzip-encoded when the client accepts it
+    private ResponseEntity<StreamingResponseBody> streamedFile(String name, FileFormat format, String acceptEncoding,
+                                                               StreamingResponseBody writer) {
+        boolean gzip = HttpCaching.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = !gzip ? writer : out -> {
+            // Sync flush, so the exporters' early flush reaches the client through the compressor
+            try (GZIPOutputStream compressed = new GZIPOutputStream(out, 8192, true)) {
+                writer.writeTo(compressed);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(format.mediaType(), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.extension()).build().toString())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
 }
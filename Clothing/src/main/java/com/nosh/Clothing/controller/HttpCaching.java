@@ -0,0 +1,71 @@
+package com.nosh.Clothing.controller;
+
+import com.nosh.Clothing.service.ContentVersions;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+
+/**
+ * Cache-Control policies and conditional GET handling shared by the controllers.
+ */
+final class HttpCaching {
+
+    // Public catalog data: any cache may keep it but must revalidate, which is a cheap 304
+    static final CacheControl CATALOG = CacheControl.noCache().cachePublic();
+
+    // Typeahead and search results: a short freshness window absorbs repeated keystrokes
+    static final CacheControl SEARCH = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic();
+
+    // Read live from the shared database, where no node-local validator can vouch for it:
+    // browser only, and always fetched again in full
+    static final CacheControl LIVE = CacheControl.noCache().cachePrivate();
+
+    private HttpCaching() {
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes Cache-Control and the validators for {@code version}. Returns true when the request's
+     * If-None-Match / If-Modified-Since already match, in which case a 304 has been prepared and the
+     * handler should return null without producing a body.
+     */
+    static boolean notModified(ServletWebRequest request, ContentVersions.Version version, CacheControl cacheControl) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return request.checkNotModified(version.etag(), version.lastModified());
+    }
+
+    /**
+     * {@link #notModified} for a body served identity or gzip encoded from the same URL. The gzip
+     * bytes get their own tag, and Vary goes on the 304 too, so no cache hands one encoding to a
+     * client that asked for the other.
+     */
+    static boolean notModified(ServletWebRequest request, ContentVersions.Version version, CacheControl cacheControl,
+                               boolean gzip) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        ContentVersions.Version encoded = gzip
+                ? new ContentVersions.Version(version.etag() + ".gz", version.lastModified())
+                : version;
+        return notModified(request, encoded, cacheControl);
+    }
+}
@@ -1,35 +1,128 @@
 package com.nosh.Clothing.controller;
 
 import com.nosh.Clothing.dto.request.OrderCreateRequest;
+import com.nosh.Clothing.dto.request.OrderQuoteRequest;
+import com.nosh.Clothing.dto.request.StockHoldRequest;
+import com.nosh.Clothing.dto.response.OrderIntakeResponse;
+import com.nosh.Clothing.dto.response.OrderQuoteResponse;
 import com.nosh.Clothing.dto.response.OrderResponse;
+import com.nosh.Clothing.dto.response.OrderSummaryResponse;
+import com.nosh.Clothing.dto.response.StockHoldResponse;
+import com.nosh.Clothing.security.AuthenticatedUser;
+import com.nosh.Clothing.service.IdempotencyService;
+import com.nosh.Clothing.service.OrderIntakeService;
 import com.nosh.Clothing.service.OrderService;
+import com.nosh.Clothing.service.StockHoldService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.net.URI;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/orders")
 @CrossOrigin(origins = "http://localhost:5173")
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderCreateRequest request) {
-        OrderResponse response = orderService.createOrder(request);
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody OrderCreateRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @AuthenticationPrincipal AuthenticatedUser viewer) {
+        if (idempotencyKey == null) {
+            OrderResponse response = orderService.createOrder(request);
+            return ResponseEntity.ok(response);
+        }
+        // Retries with the same key get the first attempt's order back
+        IdempotencyService.Outcome outcome = idempotencyService.createOrder(viewer.id(), idempotencyKey, request);
+        return ResponseEntity.ok()
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+                .body(outcome.response());
+    }
+
+    // Queues the order and answers 202 straight away; poll the Location for the placed order or the refusal
+    @PostMapping("/intake")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
+    public ResponseEntity<OrderIntakeResponse> submitOrder(
+            @Valid @RequestBody OrderCreateRequest request,
+            @AuthenticationPrincipal AuthenticatedUser viewer) {
+        OrderIntakeResponse response = orderIntakeService.accept(viewer.id(), viewer.email(), request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/intake/" + response.getId()))
+                .body(response);
+    }
+
+    @GetMapping("/intake/{id}")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
+    public ResponseEntity<OrderIntakeResponse> getIntake(@PathVariable UUID id,
+                                                         @AuthenticationPrincipal AuthenticatedUser viewer) {
+        OrderIntakeResponse response = orderIntakeService.getIntake(id, viewer.id());
         return ResponseEntity.ok(response);
     }
 
+    // Reads public catalog data only, so guests can check their cart too (see SecurityConfig)
+    @PostMapping("/quote")
+    public ResponseEntity<OrderQuoteResponse> quoteOrder(@Valid @RequestBody OrderQuoteRequest request) {
+        OrderQuoteResponse response = orderService.quoteOrder(request);
+        return ResponseEntity.ok(response);
+    }
+
+    // Reserves the cart's stock for checkout; expires after checkout.holds.ttl-minutes unless the order is placed
+    @PostMapping("/holds")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
+    public ResponseEntity<StockHoldResponse> placeHold(@Valid @RequestBody StockHoldRequest request) {
+        StockHoldResponse response = stockHoldService.placeHold(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/holds/{id}")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
+    public ResponseEntity<Void> releaseHold(@PathVariable UUID id) {
+        stockHoldService.releaseHold(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/user")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
-    public ResponseEntity<List<OrderResponse>> getUserOrders() {
-        List<OrderResponse> orders = orderService.getUserOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<Page<OrderSummaryResponse>> getUserOrders(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<OrderSummaryResponse> orders = orderService.getUserOrders(page, size);
+        return ResponseEntity.ok()
+                .cacheControl(HttpCaching.LIVE)
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(orders);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
+    public ResponseEntity<OrderResponse> getOrder(@PathVariable Long id) {
+        OrderResponse order = orderService.getOrder(id);
+        return ResponseEntity.ok()
+                .cacheControl(HttpCaching.LIVE)
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(order);
     }
 }
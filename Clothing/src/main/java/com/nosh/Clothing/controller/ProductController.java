@@ -1,10 +1,21 @@
 package com.nosh.Clothing.controller;
 
+import com.nosh.Clothing.dto.request.ProductPageRequest;
+import com.nosh.Clothing.dto.response.ProductChangesResponse;
+import com.nosh.Clothing.dto.response.ProductFacetsResponse;
+import com.nosh.Clothing.dto.response.ProductPageResponse;
 import com.nosh.Clothing.dto.response.ProductResponse;
+import com.nosh.Clothing.dto.response.ProductSearchResponse;
+import com.nosh.Clothing.dto.response.ProductSuggestResponse;
+import com.nosh.Clothing.service.CatalogCache;
+import com.nosh.Clothing.service.ContentVersions;
 import com.nosh.Clothing.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -16,14 +27,72 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ContentVersions contentVersions;
+
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        List<ProductResponse> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getAllProducts(@RequestParam(required = false) String category,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                 ServletWebRequest webRequest) {
+        boolean gzip = HttpCaching.acceptsGzip(acceptEncoding);
+        if (HttpCaching.notModified(webRequest, contentVersions.catalog(), HttpCaching.CATALOG, gzip)) {
+            return null;
+        }
+        // The catalog JSON is serialized and compressed once per change; requests only copy bytes
+        CatalogCache.EncodedBody body = category == null || category.isBlank()
+                ? productService.getAllProductsEncoded()
+                : productService.getProductsByCategoryEncoded(category);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? body.gzip() : body.json());
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<ProductPageResponse> getProductPage(ProductPageRequest request) {
+        ProductPageResponse page = productService.getProductPage(request);
+        return ResponseEntity.ok().cacheControl(HttpCaching.LIVE).body(page);
+    }
+
+    // Takes the same filters as /page; sort, cursor and limit are ignored
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsResponse> getProductFacets(ProductPageRequest request) {
+        ProductFacetsResponse facets = productService.getProductFacets(request);
+        return ResponseEntity.ok().cacheControl(HttpCaching.LIVE).body(facets);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangesResponse> getProductChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "200") int limit) {
+        ProductChangesResponse changes = productService.getProductChanges(since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResponse> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        ProductSearchResponse results = productService.searchProducts(query, page, size);
+        return ResponseEntity.ok().cacheControl(HttpCaching.SEARCH).body(results);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<ProductSuggestResponse> suggestProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "8") int limit) {
+        ProductSuggestResponse suggestions = productService.suggestProducts(query, limit);
+        return ResponseEntity.ok().cacheControl(HttpCaching.SEARCH).body(suggestions);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id, ServletWebRequest webRequest) {
+        if (HttpCaching.notModified(webRequest, contentVersions.catalog(), HttpCaching.CATALOG)) {
+            return null;
+        }
         ProductResponse product = productService.getProductById(id);
         return ResponseEntity.ok(product);
     }
@@ -0,0 +1,10 @@
+package com.nosh.Clothing.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class HotStockRequest {
+    @NotNull
+    private Boolean enabled;
+}
@@ -1,5 +1,6 @@
 package com.nosh.Clothing.dto.request;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -7,6 +8,7 @@ import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
 import java.util.List;
+import java.util.UUID;
 
 @Data
 public class OrderCreateRequest {
@@ -14,8 +16,12 @@ public class OrderCreateRequest {
     private String shippingAddress;
 
     @NotEmpty
+    @Valid
     private List<OrderItemRequest> items;
 
+    // From POST /api/orders/holds; must cover exactly these items
+    private UUID holdId;
+
     @Data
     public static class OrderItemRequest {
         @NotNull
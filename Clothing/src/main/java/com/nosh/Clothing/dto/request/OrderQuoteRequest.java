@@ -0,0 +1,14 @@
+package com.nosh.Clothing.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrderQuoteRequest {
+    @NotEmpty
+    @Valid
+    private List<OrderCreateRequest.OrderItemRequest> items;
+}
@@ -1,11 +1,13 @@
 package com.nosh.Clothing.dto.request;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Data
 public class ProductCreateRequest {
@@ -23,9 +25,12 @@ public class ProductCreateRequest {
 
     private String imageUrl;
 
+    // Either per-size stock in variants, or sizes (a JSON array) with a quantityInStock split evenly across them
+    @Valid
+    private List<ProductVariantRequest> variants;
+
     private String sizes;
 
-    @NotNull
     @Positive
     private Integer quantityInStock;
 }
@@ -0,0 +1,39 @@
+package com.nosh.Clothing.dto.request;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class ProductPageRequest {
+    private String category;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private String size;
+    private String sort = Sort.NEWEST.getValue();
+    private String cursor;
+    private Integer limit = 24;
+
+    public enum Sort {
+        NEWEST("newest"), PRICE_LOW("price-low"), PRICE_HIGH("price-high"), NAME("name");
+
+        private final String value;
+
+        Sort(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public static Sort fromValue(String value) {
+            for (Sort sort : values()) {
+                if (sort.value.equalsIgnoreCase(value)) {
+                    return sort;
+                }
+            }
+            return null;
+        }
+    }
+}
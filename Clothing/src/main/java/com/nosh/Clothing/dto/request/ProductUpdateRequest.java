@@ -1,8 +1,11 @@
 package com.nosh.Clothing.dto.request;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Data
 public class ProductUpdateRequest {
@@ -11,6 +14,13 @@ public class ProductUpdateRequest {
     private BigDecimal price;
     private String category;
     private String imageUrl;
+
+    // Replaces every variant when present; sizes or quantityInStock alone re-split the total evenly
+    @Valid
+    private List<ProductVariantRequest> variants;
+
     private String sizes;
+
+    @PositiveOrZero
     private Integer quantityInStock;
 }
@@ -0,0 +1,18 @@
+package com.nosh.Clothing.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ProductVariantRequest {
+    @NotBlank
+    @Size(max = 32)
+    private String size;
+
+    @NotNull
+    @PositiveOrZero
+    private Integer stock;
+}
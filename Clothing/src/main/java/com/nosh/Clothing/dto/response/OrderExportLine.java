@@ -0,0 +1,29 @@
+package com.nosh.Clothing.dto.response;
+
+import com.nosh.Clothing.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One order line with its order's columns repeated; an order without lines has null item fields
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportLine {
+    private Long orderId;
+    private LocalDateTime orderCreatedAt;
+    private Order.Status status;
+    private BigDecimal orderTotal;
+    private String shippingAddress;
+    private String customerName;
+    private String customerEmail;
+    private Long itemId;
+    private Long productId;
+    private String productName;
+    private String size;
+    private Integer quantity;
+    private BigDecimal unitPrice;
+}
@@ -0,0 +1,21 @@
+package com.nosh.Clothing.dto.response;
+
+import com.nosh.Clothing.model.OrderIntake;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class OrderIntakeResponse {
+    private UUID id;
+    private OrderIntake.Status status;
+    // Set once the order is placed
+    private Long orderId;
+    // Set when the order was refused, e.g. a size sold out while the intake was queued
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
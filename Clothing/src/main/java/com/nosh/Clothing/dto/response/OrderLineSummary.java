@@ -0,0 +1,22 @@
+package com.nosh.Clothing.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineSummary {
+    @JsonIgnore
+    private Long orderId;
+    private Long productId;
+    private String productName;
+    private String imageUrl;
+    private String size;
+    private Integer quantity;
+    private BigDecimal price;
+}
@@ -0,0 +1,35 @@
+package com.nosh.Clothing.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderQuoteResponse {
+    private List<Line> lines;
+    // Sum of the lines that can be priced; lines for missing products are left out
+    private BigDecimal total;
+    // True when every line is IN_STOCK, i.e. placing the order now would succeed
+    private boolean orderable;
+
+    public enum Availability {
+        IN_STOCK, INSUFFICIENT_STOCK, SIZE_UNAVAILABLE, PRODUCT_NOT_FOUND
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Line {
+        private Long productId;
+        private String productName;
+        private String size;
+        private int quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal lineTotal;
+        // Stock left in this size, null when the product or size does not exist
+        private Integer availableStock;
+        private Availability availability;
+    }
+}
@@ -0,0 +1,36 @@
+package com.nosh.Clothing.dto.response;
+
+import com.nosh.Clothing.model.Order;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class OrderSummaryResponse {
+    private Long id;
+    private Order.Status status;
+    private BigDecimal totalPrice;
+    private String shippingAddress;
+    private LocalDateTime createdAt;
+    private String customerName;
+    private String customerEmail;
+    private Long itemCount;
+    private List<OrderLineSummary> items;
+
+    // Used by the JPQL constructor expressions in OrderRepository
+    public OrderSummaryResponse(Long id, Order.Status status, BigDecimal totalPrice, String shippingAddress,
+                                LocalDateTime createdAt, String customerName, String customerEmail, Long itemCount) {
+        this.id = id;
+        this.status = status;
+        this.totalPrice = totalPrice;
+        this.shippingAddress = shippingAddress;
+        this.createdAt = createdAt;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.itemCount = itemCount;
+    }
+}
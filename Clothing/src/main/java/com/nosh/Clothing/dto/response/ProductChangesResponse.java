@@ -0,0 +1,17 @@
+package com.nosh.Clothing.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductChangesResponse {
+    private List<ProductResponse> changed;
+    private List<Long> removed;
+    private String nextToken;
+    private boolean hasMore;
+    // The token predates the deletion log; drop local state and sync again without a token
+    private boolean resyncRequired;
+}
@@ -0,0 +1,41 @@
+package com.nosh.Clothing.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductFacetsResponse {
+    private int total;
+    private int inStock;
+    private List<CategoryCount> categories;
+    private List<PriceBucket> priceBuckets;
+    private List<SizeCount> sizes;
+
+    @Data
+    @AllArgsConstructor
+    public static class CategoryCount {
+        private String category;
+        private int count;
+    }
+
+    // Prices in [min, max)
+    @Data
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private BigDecimal min;
+        private BigDecimal max;
+        private int count;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class SizeCount {
+        private String size;
+        private int count;
+        private int inStock;
+    }
+}
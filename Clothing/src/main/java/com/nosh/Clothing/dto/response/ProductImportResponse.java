@@ -0,0 +1,25 @@
+package com.nosh.Clothing.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductImportResponse {
+    private long received;
+    private long imported;
+    private long failed;
+    private long durationMs;
+    private long rowsPerSecond;
+    // Capped; failed holds the full count
+    private List<RowError> errors;
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,14 @@
+package com.nosh.Clothing.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductPageResponse {
+    private List<ProductResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -4,6 +4,7 @@ import lombok.Data;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 public class ProductResponse {
@@ -15,6 +16,7 @@ public class ProductResponse {
     private String imageUrl;
     private String sizes;
     private Integer quantityInStock;
+    private List<ProductVariantResponse> variants;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,32 @@
+package com.nosh.Clothing.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductSearchResponse {
+    private List<Hit> hits;
+    private int total;
+    private int page;
+    private int size;
+
+    @Data
+    @AllArgsConstructor
+    public static class Hit {
+        private ProductResponse product;
+        private double score;
+        private List<Highlight> highlights;
+    }
+
+    // Character offsets [start, end) of a matched term within the named field
+    @Data
+    @AllArgsConstructor
+    public static class Highlight {
+        private String field;
+        private int start;
+        private int end;
+    }
+}
@@ -0,0 +1,21 @@
+package com.nosh.Clothing.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductSuggestResponse {
+    private List<Suggestion> products;
+    private List<String> categories;
+
+    @Data
+    @AllArgsConstructor
+    public static class Suggestion {
+        private Long id;
+        private String name;
+        private String category;
+    }
+}
@@ -0,0 +1,25 @@
+package com.nosh.Clothing.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class StockHoldResponse {
+    // Pass as holdId when placing the order
+    private UUID id;
+    private LocalDateTime expiresAt;
+    private List<Item> items;
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private Long productId;
+        private String size;
+        private int quantity;
+    }
+}
@@ -0,0 +1,15 @@
+package com.nosh.Clothing.exception;
+
+// The server is too busy to take the request; clients should retry after retryAfterSeconds
+public class ServiceUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
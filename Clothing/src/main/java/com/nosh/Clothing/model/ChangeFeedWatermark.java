@@ -0,0 +1,23 @@
+package com.nosh.Clothing.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Highest change sequence whose tombstone has been pruned; a client behind it may have missed deletes
+@Entity
+@Table(name = "change_feed_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedWatermark {
+    public static final String PRODUCTS = "products";
+
+    @Id
+    @Column(name = "feed", length = 32)
+    private String feed;
+
+    @Column(name = "pruned_through", nullable = false)
+    private Long prunedThrough;
+}
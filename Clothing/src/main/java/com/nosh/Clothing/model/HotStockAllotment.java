@@ -0,0 +1,40 @@
+package com.nosh.Clothing.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Units of a hot variant one node has taken off product_variants and not sold yet, as of its last flush
+@Entity
+@Table(name = "hot_stock_allotments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_hot_stock_allotments_node_variant", columnNames = {"node_id", "product_id", "size"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotStockAllotment {
+    // Rows are only inserted by HotStockAllotter.allot, which draws ids with nextval one at a time
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hot_stock_allotments_seq")
+    @SequenceGenerator(name = "hot_stock_allotments_seq", sequenceName = "hot_stock_allotments_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "node_id", nullable = false, length = 128)
+    private String nodeId;
+
+    // No foreign key: the product may be deleted while a node still holds some of its stock
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false, length = 32)
+    private String size;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Time of the last flush; units sold after it are not yet reflected in quantity
+    @Column(name = "flushed_at", nullable = false)
+    private LocalDateTime flushedAt;
+}
@@ -0,0 +1,52 @@
+package com.nosh.Clothing.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// An order accepted by POST /api/orders/intake and waiting for, or done with, an intake worker
+@Entity
+@Table(name = "order_intakes", indexes = {
+        @Index(name = "idx_order_intakes_status_created_at", columnList = "status, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntake {
+    // Random, so an intake id handed to the browser cannot be guessed
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // The OrderCreateRequest as JSON, so pending intakes survive a restart
+    @Column(name = "request_body", nullable = false, columnDefinition = "TEXT")
+    private String requestBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    // Why the order was refused, for REJECTED intakes
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        PENDING, PLACED, REJECTED
+    }
+}
@@ -4,21 +4,31 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_category", columnList = "category"),
+        @Index(name = "idx_products_change_seq", columnList = "change_seq")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -36,16 +46,24 @@ public class Product {
     @Column(name = "image_url")
     private String imageUrl;
 
-    // Apply the converter explicitly
-    @Column(columnDefinition = "TEXT")
-    private String sizes;
-
-    @Column(name = "quantity_in_stock", nullable = false)
-    private Integer quantityInStock;
+    // Stock is held per size; see ProductVariant
+    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @BatchSize(size = 50)
+    private List<ProductVariant> variants = new ArrayList<>();
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems;
 
+    // Flash-sale mode: checkout sells this product's stock from in-memory counters, see HotStockService
+    @ColumnDefault("false")
+    @Column(name = "hot_stock", nullable = false)
+    private boolean hotStock;
+
+    // Position of the latest write in the product change feed
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -0,0 +1,30 @@
+package com.nosh.Clothing.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Marks a deleted product in the change feed; pruned after the retention window
+@Entity
+@Table(name = "product_tombstones", indexes = {
+        @Index(name = "idx_product_tombstones_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_product_tombstones_deleted_at", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductTombstone {
+    // Product ids come from a sequence and are never reused
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,54 @@
+package com.nosh.Clothing.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.util.Comparator;
+
+@Entity
+@Table(name = "product_variants",
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_variants_product_size", columnNames = {"product_id", "size"}),
+        indexes = @Index(name = "idx_product_variants_size_product", columnList = "size, product_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductVariant {
+
+    // Products listed without sizes get a single variant under this name
+    public static final String ONE_SIZE = "ONE SIZE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_variants_seq")
+    @SequenceGenerator(name = "product_variants_seq", sequenceName = "product_variants_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Product product;
+
+    @Column(nullable = false, length = 32)
+    private String size;
+
+    @Column(nullable = false)
+    private Integer stock;
+
+    /**
+     * Identifies a variant by its natural key. Ordered by product id, then size, which is the order
+     * checkout locks variant rows in.
+     */
+    public record Key(Long productId, String size) implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::productId).thenComparing(Key::size);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
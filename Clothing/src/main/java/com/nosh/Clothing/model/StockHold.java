@@ -0,0 +1,47 @@
+package com.nosh.Clothing.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Stock set aside for one customer's checkout; released by the sweeper once it expires unconverted
+@Entity
+@Table(name = "stock_holds", indexes = {
+        @Index(name = "idx_stock_holds_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_stock_holds_user_id", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHold {
+    // Random, so a hold id handed to the browser cannot be guessed
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @OneToMany(mappedBy = "hold", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    private List<StockHoldItem> items = new ArrayList<>();
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
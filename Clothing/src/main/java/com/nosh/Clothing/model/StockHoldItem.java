@@ -0,0 +1,38 @@
+package com.nosh.Clothing.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Entity
+@Table(name = "stock_hold_items", indexes = {
+        @Index(name = "idx_stock_hold_items_hold_id", columnList = "hold_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHoldItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_hold_items_seq")
+    @SequenceGenerator(name = "stock_hold_items_seq", sequenceName = "stock_hold_items_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hold_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private StockHold hold;
+
+    // Plain columns rather than a foreign key, so deleting a product is not blocked by a pending hold
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false, length = 32)
+    private String size;
+
+    @Column(nullable = false)
+    private Integer quantity;
+}
@@ -39,6 +39,10 @@ public class User {
     @Column(nullable = false)
     private Role role = Role.CUSTOMER;
 
+    // Bumped to revoke every token issued before; tokens carry the version they were issued with
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    private Integer tokenVersion = 0;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Order> orders;
 
@@ -0,0 +1,21 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.ChangeFeedWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeFeedWatermarkRepository extends JpaRepository<ChangeFeedWatermark, String> {
+
+    // Only ever moves forward, whichever node prunes first
+    @Modifying
+    @Query(value = """
+            INSERT INTO change_feed_watermarks (feed, pruned_through) VALUES (:feed, :prunedThrough)
+            ON CONFLICT (feed) DO UPDATE
+                SET pruned_through = GREATEST(change_feed_watermarks.pruned_through, EXCLUDED.pruned_through)
+            """, nativeQuery = true)
+    void raise(@Param("feed") String feed, @Param("prunedThrough") long prunedThrough);
+}
@@ -0,0 +1,68 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.HotStockAllotment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HotStockAllotmentRepository extends JpaRepository<HotStockAllotment, Long> {
+
+    List<HotStockAllotment> findByNodeId(String nodeId);
+
+    // Units every node has taken off product_variants and not sold, as of each node's last flush.
+    // Still for sale, so stock shown to customers is the row plus these
+    @Query("""
+            SELECT a.productId AS productId, a.size AS size, SUM(a.quantity) AS quantity
+            FROM HotStockAllotment a
+            WHERE a.quantity > 0
+            GROUP BY a.productId, a.size
+            """)
+    List<AllottedView> sumAllotted();
+
+    @Query("""
+            SELECT a.productId AS productId, a.size AS size, SUM(a.quantity) AS quantity
+            FROM HotStockAllotment a
+            WHERE a.quantity > 0 AND a.productId IN :productIds
+            GROUP BY a.productId, a.size
+            """)
+    List<AllottedView> sumAllottedFor(@Param("productIds") Collection<Long> productIds);
+
+    // Units sold since the previous flush leave the row; flushed_at moves on whether or not any were
+    @Modifying
+    @Query("""
+            UPDATE HotStockAllotment a SET a.quantity = a.quantity - :sold, a.flushedAt = :flushedAt
+            WHERE a.nodeId = :nodeId AND a.productId = :productId AND a.size = :size
+            """)
+    int recordSold(@Param("nodeId") String nodeId, @Param("productId") Long productId, @Param("size") String size,
+                   @Param("sold") int sold, @Param("flushedAt") LocalDateTime flushedAt);
+
+    // A stock hold leaves no order line for reconciliation to subtract, so its units leave straight away
+    @Modifying
+    @Query("""
+            UPDATE HotStockAllotment a SET a.quantity = a.quantity - :held
+            WHERE a.nodeId = :nodeId AND a.productId = :productId AND a.size = :size
+            """)
+    int recordHeld(@Param("nodeId") String nodeId, @Param("productId") Long productId, @Param("size") String size,
+                   @Param("held") int held);
+
+    @Modifying
+    @Query("DELETE FROM HotStockAllotment a WHERE a.nodeId = :nodeId AND a.quantity <= 0")
+    int deleteEmpty(@Param("nodeId") String nodeId);
+
+    @Modifying
+    @Query("DELETE FROM HotStockAllotment a WHERE a.nodeId = :nodeId")
+    int deleteByNodeId(@Param("nodeId") String nodeId);
+
+    interface AllottedView {
+        Long getProductId();
+        String getSize();
+        Long getQuantity();
+    }
+}
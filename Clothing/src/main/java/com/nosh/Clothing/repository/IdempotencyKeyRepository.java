@@ -0,0 +1,47 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByUserIdAndKey(Long userId, String key);
+
+    /**
+     * Claims a key for this transaction, taking over a row older than {@code expiredBefore}. Returns 0
+     * when the key is live; if another transaction is inserting the same key this waits for it to
+     * finish first, so a concurrent duplicate sees the committed row rather than racing it.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (id, user_id, idempotency_key, request_hash, created_at)
+            VALUES (nextval('idempotency_keys_seq'), :userId, :key, :requestHash, :now)
+            ON CONFLICT (user_id, idempotency_key) DO UPDATE
+                SET request_hash = EXCLUDED.request_hash, created_at = EXCLUDED.created_at,
+                    order_id = NULL, response_body = NULL
+                WHERE idempotency_keys.created_at < :expiredBefore
+            """, nativeQuery = true)
+    int claim(@Param("userId") Long userId, @Param("key") String key, @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now, @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.orderId = :orderId, k.responseBody = :responseBody WHERE k.userId = :userId AND k.key = :key")
+    int recordResponse(@Param("userId") Long userId, @Param("key") String key,
+                       @Param("orderId") Long orderId, @Param("responseBody") String responseBody);
+
+    // One batch of the purge; the caller repeats until a short batch
+    @Modifying
+    @Query(value = """
+            DELETE FROM idempotency_keys
+            WHERE id IN (SELECT id FROM idempotency_keys WHERE created_at < :cutoff LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
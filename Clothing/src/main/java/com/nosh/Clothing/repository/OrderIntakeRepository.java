@@ -0,0 +1,43 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.OrderIntake;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, UUID> {
+
+    /**
+     * Locks the intakes that are still pending, skipping any another worker already holds, so an
+     * intake queued twice (after a restart, or on two nodes) is placed only once.
+     */
+    @Query(value = """
+            SELECT * FROM order_intakes
+            WHERE id IN (:ids) AND status = 'PENDING'
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OrderIntake> findPendingForUpdate(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+            SELECT i FROM OrderIntake i
+            WHERE i.status = com.nosh.Clothing.model.OrderIntake.Status.PENDING AND i.createdAt < :before
+            ORDER BY i.createdAt
+            """)
+    List<OrderIntake> findPendingCreatedBefore(@Param("before") LocalDateTime before, Limit limit);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM order_intakes
+            WHERE id IN (SELECT id FROM order_intakes WHERE status <> 'PENDING' AND completed_at < :cutoff LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteCompletedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
@@ -1,9 +1,46 @@
 package com.nosh.Clothing.repository;
 
+import com.nosh.Clothing.dto.response.OrderLineSummary;
 import com.nosh.Clothing.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    @Query("""
+            SELECT new com.nosh.Clothing.dto.response.OrderLineSummary(
+                i.order.id, p.id, p.name, p.imageUrl, i.size, i.quantity, i.price)
+            FROM OrderItem i JOIN i.product p
+            WHERE i.order.id IN :orderIds
+            ORDER BY i.order.id, i.id
+            """)
+    List<OrderLineSummary> findLineSummaries(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("""
+            SELECT i.product.id AS productId, SUM(i.quantity) AS unitsSold
+            FROM OrderItem i
+            WHERE i.order.createdAt >= :since
+            GROUP BY i.product.id
+            """)
+    List<UnitsSoldView> findUnitsSoldSince(@Param("since") LocalDateTime since);
+
+    @Query("""
+            SELECT COALESCE(SUM(i.quantity), 0)
+            FROM OrderItem i
+            WHERE i.product.id = :productId AND i.size = :size AND i.order.createdAt > :since
+            """)
+    long sumQuantityOrderedSince(@Param("productId") Long productId, @Param("size") String size,
+                                 @Param("since") LocalDateTime since);
+
+    interface UnitsSoldView {
+        Long getProductId();
+        Long getUnitsSold();
+    }
 }
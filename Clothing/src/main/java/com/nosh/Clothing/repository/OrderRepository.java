@@ -1,14 +1,44 @@
 package com.nosh.Clothing.repository;
 
+import com.nosh.Clothing.dto.response.OrderSummaryResponse;
 import com.nosh.Clothing.model.Order;
 import com.nosh.Clothing.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
     List<Order> findByUserOrderByCreatedAtDesc(User user);
-    List<Order> findAllByOrderByCreatedAtDesc();
+
+    @EntityGraph(attributePaths = {"user", "items", "items.product"})
+    Optional<Order> findWithDetailsById(Long id);
+
+    // List screens only need a handful of scalar columns; the lines are fetched separately
+    // for the page through OrderItemRepository.findLineSummaries
+    @Query(value = """
+            SELECT new com.nosh.Clothing.dto.response.OrderSummaryResponse(
+                o.id, o.status, o.totalPrice, o.shippingAddress, o.createdAt, u.name, u.email,
+                (SELECT COUNT(i) FROM OrderItem i WHERE i.order = o))
+            FROM Order o JOIN o.user u
+            WHERE u.email = :email
+            """,
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.email = :email")
+    Page<OrderSummaryResponse> findSummariesByUserEmail(@Param("email") String email, Pageable pageable);
+
+    @Query(value = """
+            SELECT new com.nosh.Clothing.dto.response.OrderSummaryResponse(
+                o.id, o.status, o.totalPrice, o.shippingAddress, o.createdAt, u.name, u.email,
+                (SELECT COUNT(i) FROM OrderItem i WHERE i.order = o))
+            FROM Order o JOIN o.user u
+            """,
+            countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<OrderSummaryResponse> findAllSummaries(Pageable pageable);
 }
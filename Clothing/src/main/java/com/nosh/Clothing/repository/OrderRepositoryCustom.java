@@ -0,0 +1,18 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.dto.response.OrderExportLine;
+import com.nosh.Clothing.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Lines of the next {@code orderLimit} orders created in [{@code from}, {@code to}), optionally with
+     * one status, in creation order. Orders are taken whole, strictly after ({@code afterCreatedAt},
+     * {@code afterId}) when that is given, so the last line's order is the key for the next chunk.
+     */
+    List<OrderExportLine> findExportLines(LocalDateTime from, LocalDateTime to, Order.Status status,
+                                          LocalDateTime afterCreatedAt, Long afterId, int orderLimit);
+}
@@ -0,0 +1,74 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.dto.response.OrderExportLine;
+import com.nosh.Clothing.model.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    // Range scan on idx_orders_created_at_id picks the chunk's orders, their lines are joined
+    // through idx_order_items_order_id
+    private static final String EXPORT_LINES_SQL = """
+            SELECT o.id AS order_id, o.created_at, o.status, o.total_price, o.shipping_address,
+                   u.name AS customer_name, u.email AS customer_email,
+                   i.id AS item_id, i.product_id, p.name AS product_name, i.size, i.quantity, i.price
+            FROM (SELECT k.id FROM orders k WHERE %s ORDER BY k.created_at, k.id LIMIT ?) chunk
+            JOIN orders o ON o.id = chunk.id
+            JOIN users u ON u.id = o.user_id
+            LEFT JOIN order_items i ON i.order_id = o.id
+            LEFT JOIN products p ON p.id = i.product_id
+            ORDER BY o.created_at, o.id, i.id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<OrderExportLine> findExportLines(LocalDateTime from, LocalDateTime to, Order.Status status,
+                                                 LocalDateTime afterCreatedAt, Long afterId, int orderLimit) {
+        // Only the filters that are set go into the SQL, so each shape gets a plan of its own
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        conditions.add("k.created_at >= ? AND k.created_at < ?");
+        parameters.add(Timestamp.valueOf(from));
+        parameters.add(Timestamp.valueOf(to));
+        if (status != null) {
+            conditions.add("k.status = ?");
+            parameters.add(status.name());
+        }
+        if (afterCreatedAt != null) {
+            conditions.add("(k.created_at, k.id) > (?, ?)");
+            parameters.add(Timestamp.valueOf(afterCreatedAt));
+            parameters.add(afterId);
+        }
+        parameters.add(orderLimit);
+        return jdbcTemplate.query(EXPORT_LINES_SQL.formatted(String.join(" AND ", conditions)),
+                (rs, rowNum) -> toExportLine(rs), parameters.toArray());
+    }
+
+    private static OrderExportLine toExportLine(ResultSet rs) throws SQLException {
+        OrderExportLine line = new OrderExportLine();
+        line.setOrderId(rs.getLong("order_id"));
+        line.setOrderCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        line.setStatus(Order.Status.valueOf(rs.getString("status")));
+        line.setOrderTotal(rs.getBigDecimal("total_price"));
+        line.setShippingAddress(rs.getString("shipping_address"));
+        line.setCustomerName(rs.getString("customer_name"));
+        line.setCustomerEmail(rs.getString("customer_email"));
+        line.setItemId(rs.getObject("item_id", Long.class));
+        line.setProductId(rs.getObject("product_id", Long.class));
+        line.setProductName(rs.getString("product_name"));
+        line.setSize(rs.getString("size"));
+        line.setQuantity(rs.getObject("quantity", Integer.class));
+        line.setUnitPrice(rs.getBigDecimal("price"));
+        return line;
+    }
+}
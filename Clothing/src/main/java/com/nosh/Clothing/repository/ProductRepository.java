@@ -1,13 +1,68 @@
 package com.nosh.Clothing.repository;
 
 import com.nosh.Clothing.model.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     List<Product> findByCategory(String category);
     List<Product> findByNameContainingIgnoreCase(String name);
+
+    @EntityGraph(attributePaths = "variants")
+    Optional<Product> findWithVariantsById(Long id);
+
+    List<Product> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long changeSeq, Limit limit);
+
+    // Product writers hold this lock until commit, so change sequence numbers become visible in order
+    @Query(value = "SELECT COUNT(*) FROM pg_advisory_xact_lock(hashtext('product_change_seq'))", nativeQuery = true)
+    long lockChangeSequence();
+
+    @Query(value = "SELECT nextval('product_change_seq')", nativeQuery = true)
+    long nextChangeSeq();
+
+    // Highest change sequence committed so far, deletes included, even once their tombstones are pruned
+    @Query(value = """
+            SELECT GREATEST(COALESCE((SELECT MAX(change_seq) FROM products), 0),
+                            COALESCE((SELECT MAX(change_seq) FROM product_tombstones), 0),
+                            COALESCE((SELECT pruned_through FROM change_feed_watermarks WHERE feed = 'products'), 0))
+            """, nativeQuery = true)
+    long findHighestChangeSeq();
+
+    @Query("SELECT p.id FROM Product p WHERE p.hotStock = true")
+    List<Long> findHotStockIds();
+
+    @Modifying
+    @Query("UPDATE Product p SET p.hotStock = :hotStock WHERE p.id = :id")
+    int updateHotStock(@Param("id") Long id, @Param("hotStock") boolean hotStock);
+
+    // Checkout quote: price and per-size stock for every requested product in one round trip;
+    // a product without variants comes back once with a null size. Stock includes the units of hot
+    // products that nodes have allotted to themselves, which have left the row but are still for sale
+    @Query("""
+            SELECT p.id AS productId, p.name AS name, p.price AS price, v.size AS size,
+                v.stock + COALESCE((SELECT SUM(a.quantity) FROM HotStockAllotment a
+                    WHERE a.productId = p.id AND a.size = v.size AND a.quantity > 0), 0) AS stock
+            FROM Product p LEFT JOIN p.variants v
+            WHERE p.id IN :ids
+            """)
+    List<VariantPriceView> findVariantPrices(@Param("ids") Collection<Long> ids);
+
+    interface VariantPriceView {
+        Long getProductId();
+        String getName();
+        BigDecimal getPrice();
+        String getSize();
+        Integer getStock();
+    }
 }
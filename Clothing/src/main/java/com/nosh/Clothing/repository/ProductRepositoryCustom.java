@@ -0,0 +1,55 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.Product;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Inserts new products and their variants as two JDBC batches, bypassing the persistence context.
+     * Ids are drawn from the same pooled sequences Hibernate uses and the change sequence is taken
+     * under the change feed lock; both are written back onto the given entities.
+     */
+    void insertAll(List<Product> products);
+
+    /**
+     * Walks every product with its variants in id order over a forward-only cursor that fetches
+     * {@code fetchSize} rows per round trip. Must run inside a transaction, otherwise the driver
+     * reads the whole result into memory. Each product is handed to {@code action} detached.
+     */
+    void streamAllWithVariants(int fetchSize, Consumer<Product> action);
+
+    /**
+     * One keyset page of products, seeking past the (sort key, id) of the last row already served,
+     * or from the start when {@code afterKey} is null. The seek is a row-value comparison, so the
+     * database starts a range scan on the matching (sort key, id) index instead of counting and
+     * skipping an offset. Only the filters that are set, null meaning unset, appear in the query,
+     * so each combination is a statement of its own with a plan that fits it.
+     */
+    List<Product> findPage(String category, BigDecimal minPrice, BigDecimal maxPrice, String size,
+                           PageOrder order, Object afterKey, Long afterId, int limit);
+
+    // Sort key and direction of a keyset page; each has a (key, id) index on products
+    enum PageOrder {
+        NEWEST("createdAt", false), PRICE_ASCENDING("price", true), PRICE_DESCENDING("price", false), NAME("name", true);
+
+        private final String property;
+        private final boolean ascending;
+
+        PageOrder(String property, boolean ascending) {
+            this.property = property;
+            this.ascending = ascending;
+        }
+
+        public String property() {
+            return property;
+        }
+
+        public boolean ascending() {
+            return ascending;
+        }
+    }
+}
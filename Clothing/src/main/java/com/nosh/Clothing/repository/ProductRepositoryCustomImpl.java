@@ -0,0 +1,185 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.Product;
+import com.nosh.Clothing.model.ProductVariant;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    // Must match allocationSize on Product and ProductVariant: each nextval hands out the block ending at its value
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String ALLOCATE_BLOCKS_SQL =
+            "SELECT nextval(?::regclass) FROM generate_series(1, ?)";
+    private static final String LOCK_CHANGE_SEQUENCE_SQL =
+            "SELECT COUNT(*) FROM pg_advisory_xact_lock(hashtext('product_change_seq'))";
+    private static final String NEXT_CHANGE_SEQS_SQL =
+            "SELECT nextval('product_change_seq') FROM generate_series(1, ?)";
+    private static final String INSERT_PRODUCT_SQL = """
+            INSERT INTO products (id, name, description, price, category, image_url, change_seq, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_VARIANT_SQL =
+            "INSERT INTO product_variants (id, product_id, size, stock) VALUES (?, ?, ?, ?)";
+
+    // Incremental sort on the already ordered product ids, so rows flow before the scan finishes
+    private static final String STREAM_WITH_VARIANTS_SQL = """
+            SELECT p.id, p.name, p.description, p.price, p.category, p.image_url, p.change_seq,
+                   p.created_at, p.updated_at, v.id AS variant_id, v.size, v.stock
+            FROM products p
+            LEFT JOIN product_variants v ON v.product_id = p.id
+            ORDER BY p.id, v.id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        int variantCount = products.stream().mapToInt(product -> product.getVariants().size()).sum();
+        Iterator<Long> productIds = allocateIds("products_seq", products.size()).iterator();
+        Iterator<Long> variantIds = allocateIds("product_variants_seq", variantCount).iterator();
+
+        jdbcTemplate.queryForObject(LOCK_CHANGE_SEQUENCE_SQL, Long.class);
+        Iterator<Long> changeSeqs = jdbcTemplate.queryForList(NEXT_CHANGE_SEQS_SQL, Long.class, products.size()).iterator();
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> productArgs = new ArrayList<>(products.size());
+        List<Object[]> variantArgs = new ArrayList<>(variantCount);
+        for (Product product : products) {
+            product.setId(productIds.next());
+            product.setChangeSeq(changeSeqs.next());
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            productArgs.add(new Object[]{product.getId(), product.getName(), product.getDescription(),
+                    product.getPrice(), product.getCategory(), product.getImageUrl(), product.getChangeSeq(),
+                    timestamp, timestamp});
+            for (ProductVariant variant : product.getVariants()) {
+                variant.setId(variantIds.next());
+                variantArgs.add(new Object[]{variant.getId(), product.getId(), variant.getSize(), variant.getStock()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, productArgs);
+        jdbcTemplate.batchUpdate(INSERT_VARIANT_SQL, variantArgs);
+    }
+
+    @Override
+    public void streamAllWithVariants(int fetchSize, Consumer<Product> action) {
+        Product[] current = new Product[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    STREAM_WITH_VARIANTS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (ResultSet rs) -> {
+            long id = rs.getLong("id");
+            if (current[0] == null || current[0].getId() != id) {
+                if (current[0] != null) {
+                    action.accept(current[0]);
+                }
+                current[0] = mapProduct(rs);
+            }
+            long variantId = rs.getLong("variant_id");
+            if (!rs.wasNull()) {
+                ProductVariant variant = new ProductVariant();
+                variant.setId(variantId);
+                variant.setProduct(current[0]);
+                variant.setSize(rs.getString("size"));
+                variant.setStock(rs.getInt("stock"));
+                current[0].getVariants().add(variant);
+            }
+        });
+        if (current[0] != null) {
+            action.accept(current[0]);
+        }
+    }
+
+    @Override
+    public List<Product> findPage(String category, BigDecimal minPrice, BigDecimal maxPrice, String size,
+                                  PageOrder order, Object afterKey, Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (category != null) {
+            conditions.add("p.category = :category");
+            parameters.put("category", category);
+        }
+        if (minPrice != null) {
+            conditions.add("p.price >= :minPrice");
+            parameters.put("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            conditions.add("p.price <= :maxPrice");
+            parameters.put("maxPrice", maxPrice);
+        }
+        if (size != null) {
+            conditions.add("EXISTS (SELECT 1 FROM ProductVariant v WHERE v.product = p AND v.size = :size)");
+            parameters.put("size", size);
+        }
+        String key = "p." + order.property();
+        if (afterKey != null) {
+            conditions.add("(" + key + ", p.id) " + (order.ascending() ? ">" : "<") + " (:afterKey, :afterId)");
+            parameters.put("afterKey", afterKey);
+            parameters.put("afterId", afterId);
+        }
+
+        String direction = order.ascending() ? " ASC" : " DESC";
+        String jpql = "SELECT p FROM Product p"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY " + key + direction + ", p.id" + direction;
+        TypedQuery<Product> query = entityManager.createQuery(jpql, Product.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static Product mapProduct(ResultSet rs) throws SQLException {
+        Product product = new Product();
+        product.setId(rs.getLong("id"));
+        product.setName(rs.getString("name"));
+        product.setDescription(rs.getString("description"));
+        product.setPrice(rs.getBigDecimal("price"));
+        product.setCategory(rs.getString("category"));
+        product.setImageUrl(rs.getString("image_url"));
+        product.setChangeSeq(rs.getObject("change_seq", Long.class));
+        product.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        product.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return product;
+    }
+
+    // One round trip per call; a fresh sequence starts at 1, whose block holds only id 1, hence the loop
+    private List<Long> allocateIds(String sequence, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+            for (Long high : jdbcTemplate.queryForList(ALLOCATE_BLOCKS_SQL, Long.class, sequence, blocks)) {
+                for (long id = Math.max(1, high - ID_BLOCK_SIZE + 1); id <= high && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,25 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.ProductTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    List<ProductTombstone> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long changeSeq, Limit limit);
+
+    @Query("SELECT MAX(t.changeSeq) FROM ProductTombstone t WHERE t.deletedAt < :cutoff")
+    Long findHighestChangeSeqDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM ProductTombstone t WHERE t.changeSeq <= :changeSeq")
+    int deleteThroughChangeSeq(@Param("changeSeq") long changeSeq);
+}
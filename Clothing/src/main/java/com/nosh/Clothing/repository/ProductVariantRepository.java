@@ -0,0 +1,22 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.ProductVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductVariantRepository extends JpaRepository<ProductVariant, Long>, ProductVariantRepositoryCustom {
+
+    boolean existsByProductIdAndSize(Long productId, String size);
+
+    @Query("SELECT v FROM ProductVariant v WHERE v.product.id IN :productIds ORDER BY v.product.id, v.id")
+    List<ProductVariant> findByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT v FROM ProductVariant v ORDER BY v.product.id, v.id")
+    List<ProductVariant> findAllByProduct();
+}
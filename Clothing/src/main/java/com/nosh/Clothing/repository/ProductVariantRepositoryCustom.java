@@ -0,0 +1,20 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.ProductVariant;
+
+import java.util.SortedMap;
+
+public interface ProductVariantRepositoryCustom {
+
+    /**
+     * Applies one guarded decrement per variant in a single JDBC batch, in the map's key order.
+     * Each returned count is 1 when the variant had enough stock and 0 when it was short or missing.
+     */
+    int[] decrementStock(SortedMap<ProductVariant.Key, Integer> quantitiesByVariant);
+
+    /**
+     * Puts released units back, one UPDATE per variant in a single JDBC batch, in the map's key order.
+     * Variants deleted in the meantime are skipped.
+     */
+    void incrementStock(SortedMap<ProductVariant.Key, Integer> quantitiesByVariant);
+}
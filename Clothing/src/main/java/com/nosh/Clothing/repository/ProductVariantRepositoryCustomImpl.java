@@ -0,0 +1,41 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.ProductVariant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+public class ProductVariantRepositoryCustomImpl implements ProductVariantRepositoryCustom {
+
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE product_variants SET stock = stock - ? WHERE product_id = ? AND size = ? AND stock >= ?";
+    private static final String INCREMENT_STOCK_SQL =
+            "UPDATE product_variants SET stock = stock + ? WHERE product_id = ? AND size = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] decrementStock(SortedMap<ProductVariant.Key, Integer> quantitiesByVariant) {
+        List<Object[]> args = new ArrayList<>(quantitiesByVariant.size());
+        for (Map.Entry<ProductVariant.Key, Integer> entry : quantitiesByVariant.entrySet()) {
+            ProductVariant.Key key = entry.getKey();
+            args.add(new Object[]{entry.getValue(), key.productId(), key.size(), entry.getValue()});
+        }
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, args);
+    }
+
+    @Override
+    public void incrementStock(SortedMap<ProductVariant.Key, Integer> quantitiesByVariant) {
+        List<Object[]> args = new ArrayList<>(quantitiesByVariant.size());
+        for (Map.Entry<ProductVariant.Key, Integer> entry : quantitiesByVariant.entrySet()) {
+            ProductVariant.Key key = entry.getKey();
+            args.add(new Object[]{entry.getValue(), key.productId(), key.size()});
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_STOCK_SQL, args);
+    }
+}
@@ -0,0 +1,29 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.StockHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, UUID>, StockHoldRepositoryCustom {
+
+    // Locking the hold row is what serialises conversion, release and the sweeper
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.id = :id")
+    Optional<StockHold> findByIdForUpdate(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.user.id = :userId")
+    List<StockHold> findByUserIdForUpdate(@Param("userId") Long userId);
+
+    long countByExpiresAtAfter(LocalDateTime now);
+}
@@ -0,0 +1,20 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.ProductVariant;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface StockHoldRepositoryCustom {
+
+    record ReleasedItem(UUID holdId, ProductVariant.Key variant, int quantity) {
+    }
+
+    /**
+     * Deletes up to {@code limit} holds that expired before {@code now}, with their items, in one
+     * statement and returns the deleted items. Holds another transaction has locked are skipped
+     * rather than waited on, so several nodes can sweep at once.
+     */
+    List<ReleasedItem> deleteExpired(LocalDateTime now, int limit);
+}
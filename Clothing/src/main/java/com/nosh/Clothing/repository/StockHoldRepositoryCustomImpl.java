@@ -0,0 +1,40 @@
+package com.nosh.Clothing.repository;
+
+import com.nosh.Clothing.model.ProductVariant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public class StockHoldRepositoryCustomImpl implements StockHoldRepositoryCustom {
+
+    // The foreign key from items to holds is checked at the end of the statement, after both deletes
+    private static final String DELETE_EXPIRED_SQL = """
+            WITH expired AS (
+                SELECT id FROM stock_holds
+                WHERE expires_at < ?
+                ORDER BY expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), deleted_holds AS (
+                DELETE FROM stock_holds h USING expired e WHERE h.id = e.id RETURNING h.id
+            )
+            DELETE FROM stock_hold_items i USING deleted_holds d
+            WHERE i.hold_id = d.id
+            RETURNING i.hold_id, i.product_id, i.size, i.quantity
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ReleasedItem> deleteExpired(LocalDateTime now, int limit) {
+        return jdbcTemplate.query(DELETE_EXPIRED_SQL, (rs, rowNum) -> new ReleasedItem(
+                rs.getObject("hold_id", UUID.class),
+                new ProductVariant.Key(rs.getLong("product_id"), rs.getString("size")),
+                rs.getInt("quantity")), Timestamp.valueOf(now), limit);
+    }
+}
@@ -2,8 +2,10 @@ package com.nosh.Clothing.repository;
 
 import com.nosh.Clothing.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByGoogleId(String googleId);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<TokenVersionView> findRevokedTokenVersions();
+
+    interface TokenVersionView {
+        Long getId();
+        Integer getTokenVersion();
+    }
 }
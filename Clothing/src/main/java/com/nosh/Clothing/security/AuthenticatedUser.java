@@ -0,0 +1,17 @@
+package com.nosh.Clothing.security;
+
+import com.nosh.Clothing.model.User;
+
+import java.security.Principal;
+
+/**
+ * Principal rebuilt from JWT claims. {@link #getName()} returns the email so
+ * {@code Authentication.getName()} keeps resolving to the user's email.
+ */
+public record AuthenticatedUser(Long id, String email, User.Role role, int tokenVersion) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,20 @@
+package com.nosh.Clothing.security;
+
+import java.io.IOException;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Where {@link GoogleTokenVerifier} gets Google's token signing keys from. The default reads
+ * Google's JWKS endpoint; tests and load runs can point {@code google.jwks-uri} at a local
+ * stand-in, or set {@code google.signing-keys} to something other than {@code jwks} and register
+ * their own bean.
+ */
+public interface GoogleSigningKeySource {
+
+    SigningKeys fetchKeys() throws IOException;
+
+    record SigningKeys(Map<String, PublicKey> keysById, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.nosh.Clothing.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shared verifier for Google ID tokens. Signing keys are cached and refreshed in the background
+ * shortly before they expire, so a login only verifies a signature locally; the key source is
+ * contacted on the request path only when a token names a key id we have not seen yet.
+ */
+@Component
+public class GoogleTokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleTokenVerifier.class);
+
+    private static final Set<String> ISSUERS = Set.of("accounts.google.com", "https://accounts.google.com");
+    private static final int MAX_CACHED_KEYS = 16;
+    private static final Duration REFRESH_AHEAD = Duration.ofMinutes(5);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    @Autowired
+    private GoogleSigningKeySource keySource;
+
+    @Value("${spring.security.oauth2.client.registration.google.client-id}")
+    private String googleClientId;
+
+    // Tolerated drift between our clock and Google's when checking exp and nbf
+    @Value("${google.clock-skew-seconds:60}")
+    private long clockSkewSeconds;
+
+    private final AtomicReference<GoogleSigningKeySource.SigningKeys> keys =
+            new AtomicReference<>(new GoogleSigningKeySource.SigningKeys(Map.of(), Instant.EPOCH));
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "google-key-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Instant lastOnDemandRefresh = Instant.EPOCH;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .requireAudience(googleClientId)
+                .setAllowedClockSkewSeconds(clockSkewSeconds)
+                .build();
+        refresher.execute(this::scheduledRefresh);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Verifies signature, expiry, audience and issuer and returns the token's claims.
+     * Throws {@link JwtException} when the token is not a valid Google ID token for this client.
+     */
+    public Claims verify(String idToken) {
+        Claims claims = parser.parseClaimsJws(idToken).getBody();
+        if (!ISSUERS.contains(claims.getIssuer())) {
+            throw new JwtException("Unexpected token issuer: " + claims.getIssuer());
+        }
+        return claims;
+    }
+
+    private PublicKey resolveKey(String keyId) {
+        if (keyId == null) {
+            throw new JwtException("Token has no key id");
+        }
+        PublicKey key = keys.get().keysById().get(keyId);
+        if (key == null && refreshOnDemand()) {
+            key = keys.get().keysById().get(keyId);
+        }
+        if (key == null) {
+            throw new JwtException("Unknown signing key: " + keyId);
+        }
+        return key;
+    }
+
+    // Google rotates keys ahead of use, so an unknown kid is rare; throttle so junk tokens
+    // cannot turn every login attempt into a key fetch
+    private synchronized boolean refreshOnDemand() {
+        if (Instant.now().isBefore(lastOnDemandRefresh.plus(RETRY_DELAY))) {
+            return false;
+        }
+        lastOnDemandRefresh = Instant.now();
+        try {
+            refresh();
+            return true;
+        } catch (IOException e) {
+            log.warn("On-demand Google signing key refresh failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void scheduledRefresh() {
+        Duration nextRun;
+        try {
+            GoogleSigningKeySource.SigningKeys fetched = refresh();
+            nextRun = Duration.between(Instant.now(), fetched.expiresAt().minus(REFRESH_AHEAD));
+            if (nextRun.compareTo(RETRY_DELAY) < 0) {
+                nextRun = RETRY_DELAY;
+            }
+        } catch (Exception e) {
+            log.warn("Google signing key refresh failed, retrying in {}s: {}", RETRY_DELAY.toSeconds(), e.getMessage());
+            nextRun = RETRY_DELAY;
+        }
+        if (!refresher.isShutdown()) {
+            refresher.schedule(this::scheduledRefresh, nextRun.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private GoogleSigningKeySource.SigningKeys refresh() throws IOException {
+        GoogleSigningKeySource.SigningKeys fetched = keySource.fetchKeys();
+        Map<String, PublicKey> bounded = new LinkedHashMap<>();
+        for (Map.Entry<String, PublicKey> entry : fetched.keysById().entrySet()) {
+            if (bounded.size() == MAX_CACHED_KEYS) {
+                break;
+            }
+            bounded.put(entry.getKey(), entry.getValue());
+        }
+        GoogleSigningKeySource.SigningKeys cached =
+                new GoogleSigningKeySource.SigningKeys(Map.copyOf(bounded), fetched.expiresAt());
+        keys.set(cached);
+        return cached;
+    }
+}
@@ -0,0 +1,90 @@
+package com.nosh.Clothing.security;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets in a bounded map. Each bucket is a single {@link AtomicLong} holding the
+ * time at which it will be full again (GCRA): taking a token pushes that time forward by one refill
+ * interval with a compare-and-swap, and the request is refused if that would put it more than a
+ * full period ahead of now.
+ *
+ * <p>A bucket whose full-again time has passed holds nothing a fresh bucket would not, so idle
+ * buckets are dropped by {@link #evictIdle()}. Once the map is at {@code maxBuckets} even after
+ * eviction, new clients share one overflow bucket per spec. A flood of new IPs therefore cannot
+ * grow memory or earn itself fresh buckets.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    // A full map sweeps itself at most this often; under a flood of new keys it would otherwise scan per request
+    private static final long FULL_MAP_EVICTION_NANOS = 1_000_000_000L;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxBuckets;
+    private final LongSupplier nanoTime;
+    private volatile long lastEvictionNanos;
+
+    public InMemoryRateLimitStore(int maxBuckets) {
+        this(maxBuckets, System::nanoTime);
+    }
+
+    // Takes the clock buckets refill by, so tests can step through a period
+    InMemoryRateLimitStore(int maxBuckets, LongSupplier nanoTime) {
+        this.maxBuckets = maxBuckets;
+        this.nanoTime = nanoTime;
+        this.lastEvictionNanos = nanoTime.getAsLong();
+    }
+
+    @Override
+    public Decision tryConsume(String key, BucketSpec spec) {
+        long period = spec.period().toNanos();
+        long interval = period / spec.capacity();
+        AtomicLong bucket = bucket(spec.name() + ":" + key, spec, period);
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long fullAt = bucket.get();
+            long newFullAt = (fullAt - now > 0 ? fullAt : now) + interval;
+            long allowAt = newFullAt - period;
+            if (allowAt - now > 0) {
+                return new Decision(false, spec.capacity(), 0, fullAt - now, allowAt - now);
+            }
+            if (bucket.compareAndSet(fullAt, newFullAt)) {
+                int remaining = (int) ((period - (newFullAt - now)) / interval);
+                return new Decision(true, spec.capacity(), remaining, newFullAt - now, 0);
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // A request racing the removal may spend a token from the dropped bucket; it errs by one token at most
+    @Scheduled(initialDelayString = "${rate-limit.eviction-interval-ms:60000}",
+            fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = nanoTime.getAsLong();
+        lastEvictionNanos = now;
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    private AtomicLong bucket(String key, BucketSpec spec, long period) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxBuckets) {
+            if (nanoTime.getAsLong() - lastEvictionNanos >= FULL_MAP_EVICTION_NANOS) {
+                evictIdle();
+            }
+            if (buckets.size() >= maxBuckets) {
+                key = spec.name() + ":*";
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(nanoTime.getAsLong() - period));
+    }
+}
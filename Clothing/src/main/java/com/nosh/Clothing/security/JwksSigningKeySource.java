@@ -0,0 +1,89 @@
+package com.nosh.Clothing.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads RSA signing keys from a JWKS document over HTTP(S), or from a local file for
+ * {@code file:} URIs. Key lifetime follows the response's {@code Cache-Control: max-age}.
+ */
+public class JwksSigningKeySource implements GoogleSigningKeySource {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final Duration DEFAULT_LIFETIME = Duration.ofHours(1);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final URI jwksUri;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public JwksSigningKeySource(URI jwksUri, ObjectMapper objectMapper) {
+        this.jwksUri = jwksUri;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+
+    @Override
+    public SigningKeys fetchKeys() throws IOException {
+        if ("file".equals(jwksUri.getScheme())) {
+            return new SigningKeys(parse(Files.readString(Path.of(jwksUri))), Instant.now().plus(DEFAULT_LIFETIME));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(jwksUri).timeout(TIMEOUT).GET().build();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching signing keys", e);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Signing key endpoint returned HTTP " + response.statusCode());
+        }
+
+        Duration lifetime = response.headers().firstValue("Cache-Control")
+                .map(MAX_AGE::matcher)
+                .filter(Matcher::find)
+                .map(matcher -> Duration.ofSeconds(Long.parseLong(matcher.group(1))))
+                .orElse(DEFAULT_LIFETIME);
+        return new SigningKeys(parse(response.body()), Instant.now().plus(lifetime));
+    }
+
+    private Map<String, PublicKey> parse(String json) throws IOException {
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            for (JsonNode key : objectMapper.readTree(json).path("keys")) {
+                if (!"RSA".equals(key.path("kty").asText()) || !key.hasNonNull("kid")) {
+                    continue;
+                }
+                BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("n").asText()));
+                BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("e").asText()));
+                keys.put(key.path("kid").asText(), keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IOException("Malformed signing key document", e);
+        }
+        return keys;
+    }
+}
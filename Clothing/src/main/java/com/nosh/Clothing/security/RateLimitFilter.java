@@ -0,0 +1,214 @@
+package com.nosh.Clothing.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosh.Clothing.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Token-bucket rate limits, checked before {@link JwtAuthenticationFilter} so a refused request
+ * costs neither token parsing nor BCrypt. Logins are limited per client IP, and admin logins also
+ * per account, so credential stuffing spread over many IPs still stalls on each account. Google
+ * logins are limited per IP only: the account in an unverified ID token is whatever the sender
+ * wrote, and keying on it would let anyone lock a customer out. Public catalog reads and cart
+ * quotes are limited per IP.
+ *
+ * <p>Responses carry RateLimit-Limit, RateLimit-Remaining and RateLimit-Reset for the tightest
+ * bucket the request touched; refused requests get 429 with Retry-After. An admin login body over
+ * {@value #MAX_LOGIN_BODY_BYTES} bytes gets 413 before it is buffered in full. Client IPs are taken from
+ * the connection, so behind a proxy set {@code server.forward-headers-strategy}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String ADMIN_LOGIN_PATH = "/api/auth/admin-login";
+    // An email and a password; the body is buffered before anyone is authenticated, so it stays small
+    private static final int MAX_LOGIN_BODY_BYTES = 4096;
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    @Autowired
+    private RateLimitStore rateLimitStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final RateLimitStore.BucketSpec loginPerIp;
+    private final RateLimitStore.BucketSpec loginPerAccount;
+    private final RateLimitStore.BucketSpec publicPerIp;
+    private final Counter rejectedLogins;
+    private final Counter rejectedPublic;
+
+    public RateLimitFilter(@Value("${rate-limit.login.per-ip-per-minute:20}") int loginPerIpPerMinute,
+                           @Value("${rate-limit.login.per-account-per-minute:5}") int loginPerAccountPerMinute,
+                           @Value("${rate-limit.public.per-ip-per-minute:600}") int publicPerIpPerMinute,
+                           MeterRegistry meterRegistry) {
+        this.loginPerIp = new RateLimitStore.BucketSpec("login-ip", loginPerIpPerMinute, MINUTE);
+        this.loginPerAccount = new RateLimitStore.BucketSpec("login-account", loginPerAccountPerMinute, MINUTE);
+        this.publicPerIp = new RateLimitStore.BucketSpec("public-ip", publicPerIpPerMinute, MINUTE);
+        this.rejectedLogins = Counter.builder("http.ratelimit.rejected").tag("group", "login").register(meterRegistry);
+        this.rejectedPublic = Counter.builder("http.ratelimit.rejected").tag("group", "public").register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String ip = request.getRemoteAddr();
+        HttpServletRequest forwarded = request;
+        RateLimitStore.Decision decision;
+        Counter rejected;
+
+        if (path.startsWith("/api/auth/")) {
+            rejected = rejectedLogins;
+            decision = rateLimitStore.tryConsume(ip, loginPerIp);
+            // An IP already over its limit does not get to spend the account's tokens as well
+            if (decision.allowed() && ADMIN_LOGIN_PATH.equals(path) && "POST".equals(request.getMethod())) {
+                byte[] body = request.getContentLengthLong() > MAX_LOGIN_BODY_BYTES
+                        ? null : request.getInputStream().readNBytes(MAX_LOGIN_BODY_BYTES + 1);
+                if (body == null || body.length > MAX_LOGIN_BODY_BYTES) {
+                    writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large");
+                    return;
+                }
+                CachedBodyRequest cached = new CachedBodyRequest(request, body);
+                forwarded = cached;
+                String account = accountOf(cached.body);
+                if (account != null) {
+                    decision = tighter(decision, rateLimitStore.tryConsume(account, loginPerAccount));
+                }
+            }
+        } else if (isPublic(path, request.getMethod())) {
+            rejected = rejectedPublic;
+            decision = rateLimitStore.tryConsume(ip, publicPerIp);
+        } else {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(seconds(decision.resetNanos())));
+        if (!decision.allowed()) {
+            rejected.increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds(decision.retryAfterNanos())));
+            writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, please try again later");
+            return;
+        }
+        filterChain.doFilter(forwarded, response);
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status.value(), message, LocalDateTime.now()));
+    }
+
+    private static boolean isPublic(String path, String method) {
+        if (path.equals("/api/products") || path.startsWith("/api/products/")) {
+            return true;
+        }
+        return path.equals("/api/orders/quote") && "POST".equals(method);
+    }
+
+    // A refusal wins; between two allowed decisions report the one with fewer tokens left
+    private static RateLimitStore.Decision tighter(RateLimitStore.Decision first, RateLimitStore.Decision second) {
+        if (!first.allowed() || !second.allowed()) {
+            return first.allowed() ? second : first;
+        }
+        return second.remaining() < first.remaining() ? second : first;
+    }
+
+    private String accountOf(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() && !email.asText().isBlank() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Malformed JSON is refused by the controller; the per-IP bucket already counted it
+            return null;
+        }
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(0, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    // Holds the body read once, so the account can be checked here and the controller can still bind it
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available and read to the end at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.nosh.Clothing.security;
+
+import java.time.Duration;
+
+/**
+ * Token buckets keyed by client. The in-memory implementation keeps each node's buckets to itself;
+ * to share them between nodes, implement this interface on a shared backend (Redis, say), declare
+ * it as a bean and set {@code rate-limit.store} to anything but {@code memory} (see RateLimitConfig).
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from the bucket for {@code key}, which refills to {@code spec.capacity()}
+     * tokens over {@code spec.period()}. Buckets start full.
+     */
+    Decision tryConsume(String key, BucketSpec spec);
+
+    // Buckets of one kind, e.g. per-IP logins; the name prefixes every key that uses the spec
+    record BucketSpec(String name, int capacity, Duration period) {
+
+        public BucketSpec {
+            if (capacity < 1 || period.isNegative() || period.isZero()) {
+                throw new IllegalArgumentException("Rate limit " + name + " needs a capacity of at least 1 and a positive period");
+            }
+        }
+    }
+
+    /**
+     * The outcome for one bucket. {@code resetNanos} is the time until the bucket is full again and
+     * {@code retryAfterNanos} the time until the next token, zero when the request was allowed.
+     */
+    record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.nosh.Clothing.security;
+
+import com.nosh.Clothing.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Minimum accepted token version per user, held in memory so request authentication never
+ * queries the database. Only users whose tokens were revoked at least once have an entry.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, Integer> minimumVersions = new ConcurrentHashMap<>();
+
+    // Also picks up revocations issued through other instances
+    @PostConstruct
+    @Scheduled(initialDelayString = "${jwt.revocation.refresh-interval-ms:60000}",
+            fixedDelayString = "${jwt.revocation.refresh-interval-ms:60000}")
+    public void reload() {
+        for (UserRepository.TokenVersionView view : userRepository.findRevokedTokenVersions()) {
+            minimumVersions.merge(view.getId(), view.getTokenVersion(), Math::max);
+        }
+    }
+
+    public void revoke(Long userId, int newVersion) {
+        minimumVersions.merge(userId, newVersion, Math::max);
+    }
+
+    public boolean isRevoked(AuthenticatedUser user) {
+        return user.tokenVersion() < minimumVersions.getOrDefault(user.id(), 0);
+    }
+}
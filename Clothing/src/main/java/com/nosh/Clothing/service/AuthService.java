@@ -1,27 +1,26 @@
 package com.nosh.Clothing.service;
 
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import com.nosh.Clothing.dto.request.AdminLoginRequest;
 import com.nosh.Clothing.dto.request.GoogleLoginRequest;
 import com.nosh.Clothing.dto.response.AuthResponse;
 import com.nosh.Clothing.dto.response.UserResponse;
 import com.nosh.Clothing.exception.BadRequestException;
+import com.nosh.Clothing.exception.ResourceNotFoundException;
 import com.nosh.Clothing.model.User;
 import com.nosh.Clothing.repository.UserRepository;
+import com.nosh.Clothing.security.GoogleTokenVerifier;
 import com.nosh.Clothing.security.JwtUtil;
+import com.nosh.Clothing.security.TokenRevocationRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-
-import java.util.Collections;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthService {
@@ -32,72 +31,72 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    @Value("${spring.security.oauth2.client.registration.google.client-id}")
-    private String googleClientId;
+    @Autowired
+    private GoogleTokenVerifier googleTokenVerifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     public AuthResponse googleLogin(GoogleLoginRequest request) {
         try {
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(), GsonFactory.getDefaultInstance())
-                    .setAudience(Collections.singletonList(googleClientId))
-                    .build();
-
-            GoogleIdToken idToken = verifier.verify(request.getIdToken());
-            if (idToken != null) {
-                GoogleIdToken.Payload payload = idToken.getPayload();
-                String email = payload.getEmail();
-                String name = (String) payload.get("name");
-                String googleId = payload.getSubject();
-
-                User user = userRepository.findByGoogleId(googleId)
-                        .orElseGet(() -> {
-                            User newUser = new User();
-                            newUser.setEmail(email);
-                            newUser.setName(name);
-                            newUser.setGoogleId(googleId);
-                            newUser.setRole(User.Role.CUSTOMER);
-                            return userRepository.save(newUser);
-                        });
-
-                UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-                        .username(user.getEmail())
-                        .password("")
-                        .authorities("ROLE_" + user.getRole().name())
-                        .build();
-
-                String token = jwtUtil.generateToken(userDetails);
-                UserResponse userResponse = mapToUserResponse(user);
-
-                return new AuthResponse(token, userResponse);
-            } else {
-                throw new BadRequestException("Invalid Google token");
-            }
+            Timer.Sample verify = Timer.start(meterRegistry);
+            Claims payload = googleTokenVerifier.verify(request.getIdToken());
+            verify.stop(loginTimer("google", "verify"));
+
+            String email = payload.get("email", String.class);
+            String name = payload.get("name", String.class);
+            String googleId = payload.getSubject();
+
+            Timer.Sample db = Timer.start(meterRegistry);
+            User user = userRepository.findByGoogleId(googleId)
+                    .orElseGet(() -> {
+                        User newUser = new User();
+                        newUser.setEmail(email);
+                        newUser.setName(name);
+                        newUser.setGoogleId(googleId);
+                        newUser.setRole(User.Role.CUSTOMER);
+                        return userRepository.save(newUser);
+                    });
+            db.stop(loginTimer("google", "db"));
+
+            String token = jwtUtil.generateToken(user);
+            UserResponse userResponse = mapToUserResponse(user);
+
+            return new AuthResponse(token, userResponse);
+        } catch (JwtException e) {
+            throw new BadRequestException("Invalid Google token");
         } catch (Exception e) {
             throw new BadRequestException("Google authentication failed: " + e.getMessage());
         }
     }
 
     public AuthResponse adminLogin(AdminLoginRequest request) {
+        Timer.Sample db = Timer.start(meterRegistry);
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new BadRequestException("Invalid credentials"));
+        db.stop(loginTimer("admin", "db"));
 
         if (user.getRole() != User.Role.ADMIN) {
             throw new BadRequestException("Access denied");
         }
 
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            Timer.Sample verify = Timer.start(meterRegistry);
+            authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
             );
+            verify.stop(loginTimer("admin", "verify"));
 
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtUtil.generateToken(userDetails);
+            String token = jwtUtil.generateToken(user);
             UserResponse userResponse = mapToUserResponse(user);
 
             return new AuthResponse(token, userResponse);
@@ -106,6 +105,22 @@ public class AuthService {
         }
     }
 
+    @Transactional
+    public void revokeTokens(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        revocationRegistry.revoke(user.getId(), user.getTokenVersion());
+    }
+
+    private Timer loginTimer(String method, String phase) {
+        return Timer.builder("auth.login")
+                .tag("method", method)
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
     private UserResponse mapToUserResponse(User user) {
         UserResponse response = new UserResponse();
         response.setId(user.getId());
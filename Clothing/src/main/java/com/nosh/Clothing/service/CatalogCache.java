@@ -0,0 +1,248 @@
+package com.nosh.Clothing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosh.Clothing.dto.response.ProductResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable in-memory view of the catalog. Readers dereference the current snapshot without
+ * locking; writers build a new snapshot from the old one and swap it in (copy-on-write).
+ * The cached {@link ProductResponse} instances are shared and must not be mutated.
+ * Stock figures here are for display only, checkout always reads stock from the database.
+ * List responses are also kept as ready JSON and gzip bytes, encoded once per snapshot on first use.
+ */
+@Component
+public class CatalogCache {
+
+    private static final String ALL_KEY = "";
+    private static final String CATEGORY_KEY_PREFIX = "category:";
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer rebuildTimer;
+    private final Timer encodeTimer;
+    private final ContentVersions contentVersions;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * A list response serialized once: identity-encoded JSON and its gzip form.
+     */
+    public record EncodedBody(byte[] json, byte[] gzip) {
+    }
+
+    public CatalogCache(MeterRegistry meterRegistry, ContentVersions contentVersions, ObjectMapper objectMapper) {
+        this.contentVersions = contentVersions;
+        this.objectMapper = objectMapper;
+        this.encodeTimer = Timer.builder("catalog.cache.encode").register(meterRegistry);
+        this.hits = Counter.builder("catalog.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("catalog.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.rebuildTimer = Timer.builder("catalog.cache.rebuild").register(meterRegistry);
+        Gauge.builder("catalog.cache.size", snapshot, ref -> ref.get().byId().size()).register(meterRegistry);
+    }
+
+    public boolean isLoaded() {
+        return snapshot.get().loaded();
+    }
+
+    public List<ProductResponse> getAll() {
+        hits.increment();
+        return snapshot.get().all();
+    }
+
+    public List<ProductResponse> getByCategory(String category) {
+        hits.increment();
+        return snapshot.get().byCategory().getOrDefault(category, List.of());
+    }
+
+    public EncodedBody getAllEncoded() {
+        hits.increment();
+        Snapshot current = snapshot.get();
+        return current.encoded().computeIfAbsent(ALL_KEY, key -> encode(current.all()));
+    }
+
+    public EncodedBody getByCategoryEncoded(String category) {
+        hits.increment();
+        Snapshot current = snapshot.get();
+        List<ProductResponse> products = current.byCategory().get(category);
+        if (products == null) {
+            // Only real categories are memoised, arbitrary query strings must not grow the map
+            return encode(List.of());
+        }
+        return current.encoded().computeIfAbsent(CATEGORY_KEY_PREFIX + category, key -> encode(products));
+    }
+
+    public ProductResponse get(Long id) {
+        ProductResponse product = snapshot.get().byId().get(id);
+        if (product != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return product;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.fullReload()) {
+            replaceAll(event.upserted(), event.sequence());
+        } else {
+            apply(event.upserted(), event.removed(), event.sequence());
+        }
+    }
+
+    private EncodedBody encode(List<ProductResponse> products) {
+        long start = System.nanoTime();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(products);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            // Paid once per snapshot, so spend the extra CPU on the smallest output
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                gzip.write(json);
+            }
+            return new EncodedBody(json, compressed.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized void replaceAll(Collection<ProductResponse> products, long sequence) {
+        Snapshot current = snapshot.get();
+        if (current.loaded() && sequence < current.reloadSequence()) {
+            // Read before the reload already in place; publishing it would go backwards
+            return;
+        }
+        long start = System.nanoTime();
+        Map<Long, ProductResponse> byId = new HashMap<>();
+        Map<Long, Long> versions = new HashMap<>();
+        for (ProductResponse product : products) {
+            byId.put(product.getId(), product);
+            versions.put(product.getId(), sequence);
+        }
+        // Writes on this node that committed after the reload was read keep their newer state
+        Map<Long, Long> removedAt = new HashMap<>();
+        current.versions().forEach((id, version) -> {
+            if (version > sequence) {
+                byId.put(id, current.byId().get(id));
+                versions.put(id, version);
+            }
+        });
+        current.removedAt().forEach((id, version) -> {
+            if (version > sequence) {
+                byId.remove(id);
+                versions.remove(id);
+                removedAt.put(id, version);
+            }
+        });
+        // Periodic reloads usually find nothing new; keep the version so client validators stay good
+        if (!current.loaded() || !byId.equals(current.byId())) {
+            snapshot.set(Snapshot.of(byId, versions, removedAt, sequence, true));
+            contentVersions.catalogChanged();
+        } else {
+            snapshot.set(current.restamped(versions, removedAt, sequence));
+        }
+        rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void apply(Collection<ProductResponse> upserted, Collection<Long> removed, long sequence) {
+        long start = System.nanoTime();
+        Snapshot current = snapshot.get();
+        Map<Long, ProductResponse> byId = new HashMap<>(current.byId());
+        Map<Long, Long> versions = new HashMap<>(current.versions());
+        Map<Long, Long> removedAt = new HashMap<>(current.removedAt());
+        boolean changed = false;
+        for (ProductResponse product : upserted) {
+            if (sequence > current.versionOf(product.getId())) {
+                byId.put(product.getId(), product);
+                versions.put(product.getId(), sequence);
+                removedAt.remove(product.getId());
+                changed = true;
+            }
+        }
+        for (Long id : removed) {
+            if (sequence > current.versionOf(id)) {
+                byId.remove(id);
+                versions.remove(id);
+                removedAt.put(id, sequence);
+                changed = true;
+            }
+        }
+        if (changed) {
+            // Not loaded until a full reload lands, whatever single products arrived before it
+            snapshot.set(Snapshot.of(byId, versions, removedAt, current.reloadSequence(), current.loaded()));
+            contentVersions.catalogChanged();
+        }
+        rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@code versions} holds the change sequence each cached product reflects and {@code removedAt}
+     * the sequence of deletes seen since the last reload, so a stale event cannot bring back an older
+     * state or a deleted product. A product in neither map is as of {@code reloadSequence}.
+     */
+    private record Snapshot(Map<Long, ProductResponse> byId,
+                            Map<Long, Long> versions,
+                            Map<Long, Long> removedAt,
+                            long reloadSequence,
+                            boolean loaded,
+                            List<ProductResponse> all,
+                            Map<String, List<ProductResponse>> byCategory,
+                            Map<String, EncodedBody> encoded) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), -1, false,
+                List.of(), Map.of(), new ConcurrentHashMap<>());
+
+        static Snapshot of(Map<Long, ProductResponse> byId, Map<Long, Long> versions, Map<Long, Long> removedAt,
+                           long reloadSequence, boolean loaded) {
+            List<ProductResponse> all = new ArrayList<>(byId.values());
+            all.sort(Comparator.comparing(ProductResponse::getId));
+
+            Map<String, List<ProductResponse>> byCategory = new LinkedHashMap<>();
+            for (ProductResponse product : all) {
+                byCategory.computeIfAbsent(product.getCategory(), c -> new ArrayList<>()).add(product);
+            }
+            byCategory.replaceAll((category, products) -> List.copyOf(products));
+
+            return new Snapshot(Map.copyOf(byId), Map.copyOf(versions), Map.copyOf(removedAt), reloadSequence, loaded,
+                    List.copyOf(all), Map.copyOf(byCategory), new ConcurrentHashMap<>());
+        }
+
+        // Same content under newer sequences; the encoded bodies stay valid
+        Snapshot restamped(Map<Long, Long> versions, Map<Long, Long> removedAt, long reloadSequence) {
+            return new Snapshot(byId, Map.copyOf(versions), Map.copyOf(removedAt), reloadSequence, true,
+                    all, byCategory, encoded);
+        }
+
+        long versionOf(Long id) {
+            Long version = versions.get(id);
+            return version != null ? version : Math.max(removedAt.getOrDefault(id, -1L), reloadSequence);
+        }
+    }
+}
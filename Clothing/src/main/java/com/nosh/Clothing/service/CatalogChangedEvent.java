@@ -0,0 +1,32 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.dto.response.ProductResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by {@link ProductService} on product writes so the in-memory catalog views (cache,
+ * search index, ...) can follow; listeners receive it once the write commits. A full reload carries
+ * the whole catalog and replaces whatever the listener held before.
+ *
+ * <p>{@code sequence} is the product change sequence the event reflects: the write's own number for
+ * an upsert or removal, and the highest committed number at read time for a full reload. Events can
+ * arrive out of order, a reload read before a write may be published after it, so listeners that
+ * must not go backwards compare sequences.
+ */
+public record CatalogChangedEvent(Collection<ProductResponse> upserted, Collection<Long> removed, boolean fullReload,
+                                  long sequence) {
+
+    public static CatalogChangedEvent reload(Collection<ProductResponse> products, long sequence) {
+        return new CatalogChangedEvent(products, List.of(), true, sequence);
+    }
+
+    public static CatalogChangedEvent upsert(ProductResponse product, long sequence) {
+        return new CatalogChangedEvent(List.of(product), List.of(), false, sequence);
+    }
+
+    public static CatalogChangedEvent remove(Long productId, long sequence) {
+        return new CatalogChangedEvent(List.of(), List.of(productId), false, sequence);
+    }
+}
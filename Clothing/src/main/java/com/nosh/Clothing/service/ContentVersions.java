@@ -0,0 +1,33 @@
+package com.nosh.Clothing.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version counter behind the HTTP validators (ETag / Last-Modified) of the catalog views
+ * this node serves from its own {@link CatalogCache}, so a conditional GET can be answered without
+ * touching the database. Tags start with the boot time, so a node never confirms a tag handed out
+ * by another node or by its own previous run. Responses read live from the shared database carry
+ * no validators at all: a node-local counter cannot see what other nodes commit.
+ */
+@Component
+public class ContentVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong catalog = new AtomicLong();
+    private volatile long modified = System.currentTimeMillis();
+
+    public record Version(String etag, long lastModified) {
+    }
+
+    // Everything the in-memory catalog views serve: product lists, product details
+    public Version catalog() {
+        return new Version("c" + epoch + "." + catalog.get(), modified);
+    }
+
+    void catalogChanged() {
+        modified = System.currentTimeMillis();
+        catalog.incrementAndGet();
+    }
+}
@@ -0,0 +1,97 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.exception.BadRequestException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: comma separated, fields optionally wrapped in double quotes with
+ * {@code ""} for a literal quote, quoted fields may span lines. Blank lines are skipped and
+ * carriage returns outside quotes are ignored. Reads through its own buffer, one record at a time.
+ */
+final class CsvReader {
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long line = 1;
+    private long recordLine;
+
+    CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * The next record's fields, or null at end of input.
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        while (c == '\n' || c == '\r') {
+            if (c == '\n') {
+                line++;
+            }
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new BadRequestException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c == '\n') {
+                    line++;
+                }
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Line number, from 1, on which the record last returned by {@link #next()} starts.
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = Math.max(in.read(buffer, 0, buffer.length), 0);
+            position = 0;
+            if (limit == 0) {
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
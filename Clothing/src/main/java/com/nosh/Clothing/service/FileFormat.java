@@ -0,0 +1,46 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * File formats for bulk import and export.
+ */
+public enum FileFormat {
+
+    // Header row first
+    CSV("text/csv", "csv"),
+
+    // One JSON object per line
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    FileFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static FileFormat fromParameter(String format) {
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported format: " + format);
+        }
+    }
+
+    public static FileFormat fromMediaType(MediaType contentType) {
+        return contentType.isCompatibleWith(CSV.mediaType) ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,100 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.model.ProductVariant;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The statements {@link HotStockService} runs while buyers may be waiting: moving units between a
+ * variant row and this node's allotment. They use a small connection pool of their own, so a refill
+ * never queues behind the checkouts that are waiting for it, each of which holds a connection from
+ * the main pool. The pool opens its first connection on first use.
+ */
+@Component
+public class HotStockAllotter {
+
+    // The CTE reads the locked row, so the UPDATE can report what it took as well as what is left
+    private static final String ALLOT_STOCK_SQL = """
+            WITH v AS (
+                SELECT id, stock FROM product_variants WHERE product_id = ? AND size = ? AND stock > 0 FOR UPDATE
+            )
+            UPDATE product_variants p SET stock = v.stock - LEAST(v.stock, ?)
+            FROM v WHERE p.id = v.id
+            RETURNING LEAST(v.stock, ?)
+            """;
+    // flushed_at is only set on insert: units sold between the last flush and now are still missing
+    // from the row, and moving the time forward would hide them from reconciliation
+    private static final String ADD_ALLOTTED_SQL = """
+            INSERT INTO hot_stock_allotments (id, node_id, product_id, size, quantity, flushed_at)
+            VALUES (nextval('hot_stock_allotments_seq'), ?, ?, ?, ?, ?)
+            ON CONFLICT (node_id, product_id, size) DO UPDATE
+                SET quantity = hot_stock_allotments.quantity + EXCLUDED.quantity
+            """;
+    private static final String SUBTRACT_ALLOTTED_SQL =
+            "UPDATE hot_stock_allotments SET quantity = quantity - ? WHERE node_id = ? AND product_id = ? AND size = ?";
+    private static final String INCREMENT_STOCK_SQL =
+            "UPDATE product_variants SET stock = stock + ? WHERE product_id = ? AND size = ?";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public HotStockAllotter(DataSourceProperties dataSourceProperties,
+                            @Value("${checkout.hot-stock.pool-size:2}") int poolSize) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("hot-stock");
+        this.dataSource.setMaximumPoolSize(poolSize);
+        this.dataSource.setMinimumIdle(0);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @PreDestroy
+    void close() {
+        dataSource.close();
+    }
+
+    /**
+     * Takes up to {@code wanted} units off the variant row and adds them to this node's allotment,
+     * in one transaction. Returns how many it got, 0 when the variant is sold out or missing.
+     */
+    public int allot(String nodeId, ProductVariant.Key variant, int wanted) {
+        Integer allotted = transactionTemplate.execute(status -> {
+            List<Integer> taken = jdbcTemplate.queryForList(ALLOT_STOCK_SQL, Integer.class,
+                    variant.productId(), variant.size(), wanted, wanted);
+            int units = taken.isEmpty() ? 0 : taken.get(0);
+            if (units > 0) {
+                jdbcTemplate.update(ADD_ALLOTTED_SQL, nodeId, variant.productId(), variant.size(), units, LocalDateTime.now());
+            }
+            return units;
+        });
+        return allotted == null ? 0 : allotted;
+    }
+
+    /**
+     * Hands unsold units from this node's allotment back to the variant row.
+     */
+    public void release(String nodeId, ProductVariant.Key variant, int units) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(SUBTRACT_ALLOTTED_SQL, units, nodeId, variant.productId(), variant.size());
+            jdbcTemplate.update(INCREMENT_STOCK_SQL, units, variant.productId(), variant.size());
+        });
+    }
+
+    /**
+     * Puts units back on the variant row that the allotment ledger already counts as sold, such as
+     * a sale rolled back after its counter was flushed and closed.
+     */
+    public void returnToRow(ProductVariant.Key variant, int units) {
+        jdbcTemplate.update(INCREMENT_STOCK_SQL, units, variant.productId(), variant.size());
+    }
+}
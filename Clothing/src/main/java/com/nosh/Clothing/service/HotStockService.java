@@ -0,0 +1,455 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.exception.ResourceNotFoundException;
+import com.nosh.Clothing.exception.ServiceUnavailableException;
+import com.nosh.Clothing.model.HotStockAllotment;
+import com.nosh.Clothing.model.ProductVariant;
+import com.nosh.Clothing.repository.HotStockAllotmentRepository;
+import com.nosh.Clothing.repository.OrderItemRepository;
+import com.nosh.Clothing.repository.ProductRepository;
+import com.nosh.Clothing.repository.ProductVariantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flash-sale inventory for products flagged {@code hot_stock}. Instead of every checkout queueing on
+ * the same variant row lock, this node takes stock off the row in allotments and sells it from
+ * {@link StripedStock} counters in memory. The row only sees one short transaction per allotment.
+ *
+ * <p>Stock a node has allotted but not sold is recorded per node in {@code hot_stock_allotments}.
+ * Each flush subtracts what was sold since the previous one, a clean shutdown hands everything back,
+ * and on startup a node hands back what a crashed predecessor with the same node id left behind,
+ * less anything ordered after that predecessor's last flush. Units taken for a stock hold leave no
+ * order line behind, and the hold may be released or swept back onto the row before the node
+ * restarts, so those are subtracted from the ledger in the hold's own transaction instead of at the
+ * next flush. That estimate can only err towards stranding a few units, never towards selling the
+ * same unit twice.
+ *
+ * <p>Refills run on a small executor and connection pool of their own ({@link HotStockAllotter}),
+ * started early once a counter runs low, so a buyer never holds a lock while the database is asked
+ * for more units. A buyer who finds the counter empty waits for the refill in flight, outside any
+ * monitor, and gets a 503 if it does not arrive in time.
+ */
+@Service
+public class HotStockService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockService.class);
+    private static final long RETRY_AFTER_SECONDS = 1;
+    // Other nodes hand units back on flushes and shutdown, so an empty row is worth asking again soon
+    private static final long ROW_EMPTY_RECHECK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private HotStockAllotmentRepository allotmentRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private HotStockAllotter allotter;
+
+    // Off: every checkout on this node locks the variant row, whatever the product flag says
+    @Value("${checkout.hot-stock.enabled:false}")
+    private boolean nodeEnabled;
+
+    // Required when enabled. Must differ between nodes sharing a database, and a restarted node must
+    // keep its id: reconciliation hands back whatever is recorded under it
+    @Value("${checkout.hot-stock.node-id:}")
+    private String nodeId;
+
+    @Value("${checkout.hot-stock.allotment-size:100}")
+    private int allotmentSize;
+
+    @Value("${checkout.hot-stock.low-water:25}")
+    private int lowWater;
+
+    @Value("${checkout.hot-stock.refill-timeout-ms:2000}")
+    private long refillTimeoutMs;
+
+    @Value("${checkout.hot-stock.stripes:0}")
+    private int configuredStripes;
+
+    private final Map<ProductVariant.Key, Counters> counters = new ConcurrentHashMap<>();
+    private volatile Set<Long> hotProductIds = Set.of();
+    // Flushes commit on their own, never with the checkout that happened to trigger them
+    private final TransactionTemplate separateTransaction;
+    private final ExecutorService refillExecutor;
+    private final Counter refills;
+
+    public HotStockService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           @Value("${checkout.hot-stock.pool-size:2}") int refillThreads) {
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // One thread per connection in the allotter's pool, so a queued refill never waits for a connection
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.refillExecutor = Executors.newFixedThreadPool(refillThreads, task -> {
+            Thread thread = new Thread(task, "hot-stock-refill-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refills = Counter.builder("stock.hot.refills").register(meterRegistry);
+        Gauge.builder("stock.hot.units", counters,
+                map -> map.values().stream().mapToLong(c -> c.stock().available()).sum()).register(meterRegistry);
+    }
+
+    // Units on hand in one stripe set, units sold from it that the ledger has not been told about,
+    // the refill in flight for it, if any, and when a refill last found the row empty (0 if it did not)
+    private record Counters(StripedStock stock, LongAdder unflushedSales,
+                            AtomicReference<CompletableFuture<Integer>> refill, AtomicLong rowEmptyAt) {
+
+        boolean rowRecentlyEmpty() {
+            long emptyAt = rowEmptyAt.get();
+            return emptyAt != 0 && System.nanoTime() - emptyAt < ROW_EMPTY_RECHECK_NANOS;
+        }
+    }
+
+    @PostConstruct
+    void reconcile() {
+        if (!nodeEnabled) {
+            return;
+        }
+        if (nodeId == null || nodeId.isBlank()) {
+            throw new IllegalStateException("checkout.hot-stock.node-id must be set when checkout.hot-stock.enabled is true");
+        }
+        // Runs before the web server starts, so every row under this node id is left from a previous run
+        hotProductIds = Set.copyOf(productRepository.findHotStockIds());
+        separateTransaction.executeWithoutResult(status -> {
+            SortedMap<ProductVariant.Key, Integer> stranded = new TreeMap<>();
+            List<HotStockAllotment> rows = allotmentRepository.findByNodeId(nodeId);
+            for (HotStockAllotment row : rows) {
+                long orderedSince = orderItemRepository.sumQuantityOrderedSince(row.getProductId(), row.getSize(), row.getFlushedAt());
+                long units = row.getQuantity() - orderedSince;
+                if (units > 0) {
+                    stranded.put(new ProductVariant.Key(row.getProductId(), row.getSize()), (int) units);
+                }
+            }
+            if (!stranded.isEmpty()) {
+                productVariantRepository.incrementStock(stranded);
+            }
+            allotmentRepository.deleteAll(rows);
+            if (!rows.isEmpty()) {
+                log.info("Reconciled {} hot stock allotments left by node {}, returned {}", rows.size(), nodeId, stranded);
+            }
+        });
+    }
+
+    public boolean isHot(Long productId) {
+        return nodeEnabled && hotProductIds.contains(productId);
+    }
+
+    // Units this node holds for the variant; other nodes may hold more
+    public int available(ProductVariant.Key variant) {
+        Counters variantCounters = counters.get(variant);
+        return variantCounters == null ? 0 : (int) variantCounters.stock().available();
+    }
+
+    @Transactional
+    public void setHotStock(Long productId, boolean enabled) {
+        if (productRepository.updateHotStock(productId, enabled) == 0) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        // Other nodes pick the change up on their next flush; this one applies it straight away
+        Set<Long> ids = new HashSet<>(hotProductIds);
+        if (enabled) {
+            ids.add(productId);
+        } else {
+            ids.remove(productId);
+        }
+        hotProductIds = Set.copyOf(ids);
+    }
+
+    /**
+     * Takes every quantity from the in-memory counters, allotting more from the database where a
+     * counter runs dry. Returns the first variant that could not be covered, with nothing taken,
+     * or null on success. If the surrounding transaction rolls back the units go back to the counters.
+     */
+    public ProductVariant.Key takeStock(SortedMap<ProductVariant.Key, Integer> quantitiesByVariant) {
+        return takeStock(quantitiesByVariant, false);
+    }
+
+    /**
+     * As {@link #takeStock}, for a stock hold: the units also leave this node's ledger in the
+     * surrounding transaction, which must be active, rather than at the next flush.
+     */
+    public ProductVariant.Key takeStockForHold(SortedMap<ProductVariant.Key, Integer> quantitiesByVariant) {
+        return takeStock(quantitiesByVariant, true);
+    }
+
+    private ProductVariant.Key takeStock(SortedMap<ProductVariant.Key, Integer> quantitiesByVariant, boolean held) {
+        List<Map.Entry<ProductVariant.Key, Integer>> taken = new ArrayList<>(quantitiesByVariant.size());
+        try {
+            for (Map.Entry<ProductVariant.Key, Integer> entry : quantitiesByVariant.entrySet()) {
+                if (!take(entry.getKey(), entry.getValue(), held)) {
+                    taken.forEach(done -> giveBack(done.getKey(), done.getValue(), held));
+                    return entry.getKey();
+                }
+                taken.add(entry);
+            }
+            if (held) {
+                taken.forEach(done -> allotmentRepository.recordHeld(
+                        nodeId, done.getKey().productId(), done.getKey().size(), done.getValue()));
+            }
+        } catch (RuntimeException e) {
+            taken.forEach(done -> giveBack(done.getKey(), done.getValue(), held));
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        taken.forEach(done -> giveBack(done.getKey(), done.getValue(), held));
+                    }
+                }
+            });
+        }
+        return null;
+    }
+
+    /**
+     * Records sales since the last flush in the ledger and hands back the stock of variants whose
+     * product is no longer hot, all in one transaction. Also picks up flag changes made on other nodes.
+     */
+    @Scheduled(initialDelayString = "${checkout.hot-stock.flush-interval-ms:1000}",
+            fixedDelayString = "${checkout.hot-stock.flush-interval-ms:1000}")
+    public void flush() {
+        if (!nodeEnabled) {
+            return;
+        }
+        hotProductIds = Set.copyOf(productRepository.findHotStockIds());
+        if (counters.isEmpty()) {
+            return;
+        }
+        // Taken before the sales are read: a sale in between is subtracted now and again by
+        // reconciliation after a crash, which errs towards stranding units rather than overselling
+        LocalDateTime flushedAt = LocalDateTime.now();
+        Map<ProductVariant.Key, Long> sold = new TreeMap<>();
+        SortedMap<ProductVariant.Key, Integer> released = new TreeMap<>();
+        for (Map.Entry<ProductVariant.Key, Counters> entry : counters.entrySet()) {
+            ProductVariant.Key variant = entry.getKey();
+            Counters variantCounters = entry.getValue();
+            if (!isHot(variant.productId()) && counters.remove(variant, variantCounters)) {
+                long drained;
+                synchronized (variantCounters) {
+                    drained = variantCounters.stock().close();
+                }
+                released.put(variant, (int) drained);
+                sold.put(variant, variantCounters.unflushedSales().sumThenReset() + drained);
+            } else {
+                sold.put(variant, variantCounters.unflushedSales().sumThenReset());
+            }
+        }
+
+        separateTransaction.executeWithoutResult(status -> {
+            sold.forEach((variant, units) -> allotmentRepository.recordSold(
+                    nodeId, variant.productId(), variant.size(), units.intValue(), flushedAt));
+            released.values().removeIf(units -> units == 0);
+            if (!released.isEmpty()) {
+                productVariantRepository.incrementStock(released);
+            }
+            allotmentRepository.deleteEmpty(nodeId);
+        });
+    }
+
+    @PreDestroy
+    void returnAllotments() throws InterruptedException {
+        refillExecutor.shutdown();
+        if (!nodeEnabled) {
+            return;
+        }
+        // A refill that lands after this would add units to a counter nobody drains
+        refillExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        SortedMap<ProductVariant.Key, Integer> released = new TreeMap<>();
+        for (Map.Entry<ProductVariant.Key, Counters> entry : counters.entrySet()) {
+            Counters variantCounters = entry.getValue();
+            synchronized (variantCounters) {
+                long drained = variantCounters.stock().close();
+                if (drained > 0) {
+                    released.put(entry.getKey(), (int) drained);
+                }
+            }
+        }
+        counters.clear();
+        separateTransaction.executeWithoutResult(status -> {
+            if (!released.isEmpty()) {
+                productVariantRepository.incrementStock(released);
+            }
+            allotmentRepository.deleteByNodeId(nodeId);
+        });
+        log.info("Returned hot stock allotments on shutdown: {}", released);
+    }
+
+    // Held units are already out of the ledger, so they are not counted as unflushed sales
+    private boolean take(ProductVariant.Key variant, int quantity, boolean held) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(refillTimeoutMs);
+        while (true) {
+            Counters variantCounters = counters.computeIfAbsent(variant,
+                    key -> new Counters(new StripedStock(stripes()), new LongAdder(), new AtomicReference<>(), new AtomicLong()));
+            if (tryTake(variantCounters, quantity, held)) {
+                if (variantCounters.stock().available() < lowWater && !variantCounters.rowRecentlyEmpty()) {
+                    // Refill ahead of the buyers that would otherwise find the counter empty
+                    refill(variant, variantCounters, quantity);
+                }
+                return true;
+            }
+            if (variantCounters.stock().isClosed()) {
+                // Handed back by a flush after the product stopped being hot; retry on a fresh counter
+                continue;
+            }
+            if (variantCounters.rowRecentlyEmpty()) {
+                // Sold out moments ago; after a sell-out every attempt would otherwise query the row
+                return false;
+            }
+            int allotted = awaitRefill(refill(variant, variantCounters, quantity), deadline);
+            if (allotted == 0) {
+                // The row is sold out, what is left in the counter is all there is
+                return tryTake(variantCounters, quantity, held);
+            }
+        }
+    }
+
+    private boolean tryTake(Counters variantCounters, int quantity, boolean held) {
+        boolean taken = variantCounters.stock().tryTake(quantity);
+        if (!taken) {
+            // Gathering may put units back, which must not race a close
+            synchronized (variantCounters) {
+                taken = !variantCounters.stock().isClosed() && variantCounters.stock().tryTakeAcrossStripes(quantity);
+            }
+        }
+        if (taken && !held) {
+            variantCounters.unflushedSales().add(quantity);
+        }
+        return taken;
+    }
+
+    // Joins the refill in flight for the variant, or starts one; at most one per variant at a time
+    private CompletableFuture<Integer> refill(ProductVariant.Key variant, Counters variantCounters, int quantity) {
+        CompletableFuture<Integer> started = new CompletableFuture<>();
+        while (!variantCounters.refill().compareAndSet(null, started)) {
+            CompletableFuture<Integer> inFlight = variantCounters.refill().get();
+            if (inFlight != null) {
+                return inFlight;
+            }
+        }
+        try {
+            refillExecutor.execute(() -> {
+                try {
+                    int allotted = allot(variant, variantCounters, Math.max(quantity, allotmentSize));
+                    // Cleared first, so a buyer woken by this result starts the next refill if it needs one
+                    variantCounters.refill().set(null);
+                    started.complete(allotted);
+                } catch (RuntimeException e) {
+                    log.warn("Hot stock refill for {} failed: {}", variant, e.getMessage());
+                    variantCounters.refill().set(null);
+                    started.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            variantCounters.refill().set(null);
+            started.completeExceptionally(e);
+        }
+        return started;
+    }
+
+    private int allot(ProductVariant.Key variant, Counters variantCounters, int wanted) {
+        int allotted = allotter.allot(nodeId, variant, wanted);
+        variantCounters.rowEmptyAt().set(allotted == 0 ? System.nanoTime() : 0);
+        if (allotted == 0) {
+            return 0;
+        }
+        refills.increment();
+        boolean kept;
+        synchronized (variantCounters) {
+            kept = variantCounters.stock().give(allotted);
+        }
+        if (!kept) {
+            // The counter was closed while the allotment was on its way; the units go straight back
+            allotter.release(nodeId, variant, allotted);
+        }
+        return allotted;
+    }
+
+    private int awaitRefill(CompletableFuture<Integer> refill, long deadline) {
+        try {
+            return refill.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Checkout is busy for this item, please try again shortly", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Checkout was interrupted, please try again", RETRY_AFTER_SECONDS);
+        } catch (ExecutionException e) {
+            throw new ServiceUnavailableException("Stock for this item could not be reserved, please try again shortly", RETRY_AFTER_SECONDS);
+        }
+    }
+
+    private void giveBack(ProductVariant.Key variant, int quantity, boolean held) {
+        Counters variantCounters = counters.get(variant);
+        if (variantCounters != null) {
+            synchronized (variantCounters) {
+                if (variantCounters.stock().give(quantity)) {
+                    if (!held) {
+                        variantCounters.unflushedSales().add(-quantity);
+                    }
+                    return;
+                }
+            }
+        }
+        // The counter was handed back in the meantime. A sale was flushed as sold, so only the row is
+        // owed the units; a hold's ledger entry rolled back with it, so the ledger still counts them.
+        // Either way off this thread, which may still hold the checkout's connection
+        Runnable handBack = held
+                ? () -> allotter.release(nodeId, variant, quantity)
+                : () -> allotter.returnToRow(variant, quantity);
+        try {
+            refillExecutor.execute(handBack);
+        } catch (RejectedExecutionException e) {
+            // Shutting down, nobody is waiting on this thread any more
+            handBack.run();
+        }
+    }
+
+    private int stripes() {
+        return configuredStripes > 0 ? configuredStripes : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,191 @@
+package com.nosh.Clothing.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosh.Clothing.dto.request.OrderCreateRequest;
+import com.nosh.Clothing.dto.response.OrderResponse;
+import com.nosh.Clothing.exception.BadRequestException;
+import com.nosh.Clothing.model.IdempotencyKey;
+import com.nosh.Clothing.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Makes {@code POST /api/orders} safe to retry. The first request with a given Idempotency-Key
+ * creates the order and stores its response in the same transaction; later requests with that key
+ * get the stored response back without running checkout again.
+ *
+ * <p>Recent keys are also kept in a bounded LRU on this node. A retry that lands here while the
+ * original is still running waits on it rather than starting its own checkout. Across nodes the
+ * unique index does the same job, because the claiming insert blocks on the other node's
+ * uncommitted row.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${orders.idempotency.ttl-hours:24}")
+    private int ttlHours;
+
+    @Value("${orders.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    // Access-ordered, so the eldest entry is the least recently used; guarded by its own monitor
+    private final Map<Scope, Entry> recent = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Scope, Entry> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    private final Counter replayedRequests;
+
+    public IdempotencyService(MeterRegistry meterRegistry) {
+        this.replayedRequests = Counter.builder("orders.idempotency.replays").register(meterRegistry);
+    }
+
+    public record Outcome(OrderResponse response, boolean replayed) {
+    }
+
+    private record Scope(Long userId, String key) {
+    }
+
+    private record Entry(String requestHash, CompletableFuture<OrderResponse> response, long createdAtMillis) {
+    }
+
+    public Outcome createOrder(Long userId, String key, OrderCreateRequest request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        Scope scope = new Scope(userId, key);
+        long now = System.currentTimeMillis();
+
+        Entry owned = new Entry(requestHash, new CompletableFuture<>(), now);
+        Entry existing;
+        synchronized (recent) {
+            existing = recent.get(scope);
+            if (existing != null && existing.createdAtMillis() < now - Duration.ofHours(ttlHours).toMillis()) {
+                existing = null;
+            }
+            if (existing == null) {
+                recent.put(scope, owned);
+            }
+        }
+        if (existing != null) {
+            checkSameRequest(existing.requestHash(), requestHash);
+            replayedRequests.increment();
+            return new Outcome(await(existing.response()), true);
+        }
+
+        try {
+            Outcome outcome = transactionTemplate.execute(status -> claimAndCreate(scope, requestHash, request));
+            owned.response().complete(outcome.response());
+            if (outcome.replayed()) {
+                replayedRequests.increment();
+            }
+            return outcome;
+        } catch (RuntimeException e) {
+            // Nothing was stored, so the next retry runs checkout again
+            synchronized (recent) {
+                recent.remove(scope, owned);
+            }
+            owned.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(ttlHours);
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteOlderThan(cutoff, PURGE_BATCH_SIZE));
+        } while (deleted >= PURGE_BATCH_SIZE);
+    }
+
+    private Outcome claimAndCreate(Scope scope, String requestHash, OrderCreateRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        if (idempotencyKeyRepository.claim(scope.userId(), scope.key(), requestHash, now, now.minusHours(ttlHours)) == 0) {
+            // Committed by an earlier request, possibly on another node
+            IdempotencyKey stored = idempotencyKeyRepository.findByUserIdAndKey(scope.userId(), scope.key())
+                    .orElseThrow(() -> new IllegalStateException("Idempotency key vanished while claimed"));
+            checkSameRequest(stored.getRequestHash(), requestHash);
+            return new Outcome(readResponse(stored.getResponseBody()), true);
+        }
+        OrderResponse response = orderService.createOrder(request);
+        idempotencyKeyRepository.recordResponse(scope.userId(), scope.key(), response.getId(), writeResponse(response));
+        return new Outcome(response, false);
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private static OrderResponse await(CompletableFuture<OrderResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String hash(OrderCreateRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String writeResponse(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private OrderResponse readResponse(String body) {
+        try {
+            return objectMapper.readValue(body, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
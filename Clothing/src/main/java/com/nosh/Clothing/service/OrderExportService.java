@@ -0,0 +1,183 @@
+package com.nosh.Clothing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosh.Clothing.dto.response.OrderExportLine;
+import com.nosh.Clothing.exception.BadRequestException;
+import com.nosh.Clothing.model.Order;
+import com.nosh.Clothing.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Order lines export for finance, one flat row per line. Orders are read in keyset chunks on
+ * (created_at, id), each in its own short read-only transaction, and a chunk is written only after
+ * its connection is back in the pool. However slowly the client reads, no connection or snapshot is
+ * held for longer than one chunk's query, and memory stays flat however many orders match. The
+ * export is therefore not one snapshot: an order changed while it runs may show either state.
+ */
+@Service
+public class OrderExportService {
+
+    private static final int ORDERS_PER_CHUNK = 500;
+    private static final int CHUNK_TIMEOUT_SECONDS = 30;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final List<String> CSV_COLUMNS = List.of(
+            "orderId", "orderCreatedAt", "status", "orderTotal", "shippingAddress", "customerName",
+            "customerEmail", "itemId", "productId", "productName", "size", "quantity", "unitPrice");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${orders.export.max-range-days:366}")
+    private int maxRangeDays;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter exportedRows;
+
+    /**
+     * Orders created from the start of {@code from} to the end of {@code to}, optionally with one status.
+     */
+    public record Filter(LocalDateTime from, LocalDateTime to, Order.Status status) {
+    }
+
+    public OrderExportService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout(CHUNK_TIMEOUT_SECONDS);
+        this.exportedRows = Counter.builder("orders.export.rows").register(meterRegistry);
+    }
+
+    // Runs before the response starts streaming, so a bad filter is still answered with a 400
+    public Filter filter(String from, String to, String status) {
+        LocalDate fromDate = parseDate("from", from);
+        LocalDate toDate = parseDate("to", to);
+        if (toDate.isBefore(fromDate)) {
+            throw new BadRequestException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= maxRangeDays) {
+            throw new BadRequestException("Date range is limited to " + maxRangeDays + " days");
+        }
+        Order.Status orderStatus = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                orderStatus = Order.Status.valueOf(status.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("status must be one of " + Arrays.toString(Order.Status.values()));
+            }
+        }
+        return new Filter(fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay(), orderStatus);
+    }
+
+    public void exportOrders(OutputStream out, FileFormat format, Filter filter) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        CsvWriter csv = new CsvWriter(writer);
+        if (format == FileFormat.CSV) {
+            csv.writeRow(CSV_COLUMNS);
+            writer.flush();
+        }
+
+        long written = 0;
+        try {
+            LocalDateTime afterCreatedAt = null;
+            Long afterId = null;
+            while (true) {
+                LocalDateTime chunkAfterCreatedAt = afterCreatedAt;
+                Long chunkAfterId = afterId;
+                List<OrderExportLine> lines = readOnlyTransaction.execute(status -> orderRepository.findExportLines(
+                        filter.from(), filter.to(), filter.status(), chunkAfterCreatedAt, chunkAfterId, ORDERS_PER_CHUNK));
+                for (OrderExportLine line : lines) {
+                    if (format == FileFormat.CSV) {
+                        csv.writeRow(toCsvRow(line));
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(line));
+                        writer.write('\n');
+                    }
+                    if (++written == 1) {
+                        writer.flush();
+                    }
+                }
+                if (lines.isEmpty() || countOrders(lines) < ORDERS_PER_CHUNK) {
+                    break;
+                }
+                OrderExportLine last = lines.get(lines.size() - 1);
+                afterCreatedAt = last.getOrderCreatedAt();
+                afterId = last.getOrderId();
+            }
+        } finally {
+            exportedRows.increment(written);
+        }
+        writer.flush();
+    }
+
+    // Lines arrive grouped by order, so counting the changes of order id counts the orders
+    private static int countOrders(List<OrderExportLine> lines) {
+        int orders = 0;
+        Long previous = null;
+        for (OrderExportLine line : lines) {
+            if (!line.getOrderId().equals(previous)) {
+                orders++;
+                previous = line.getOrderId();
+            }
+        }
+        return orders;
+    }
+
+    private static List<String> toCsvRow(OrderExportLine line) {
+        return Arrays.asList(
+                String.valueOf(line.getOrderId()),
+                line.getOrderCreatedAt() == null ? "" : line.getOrderCreatedAt().toString(),
+                line.getStatus().name(),
+                plain(line.getOrderTotal()),
+                nullToEmpty(line.getShippingAddress()),
+                nullToEmpty(line.getCustomerName()),
+                nullToEmpty(line.getCustomerEmail()),
+                line.getItemId() == null ? "" : line.getItemId().toString(),
+                line.getProductId() == null ? "" : line.getProductId().toString(),
+                nullToEmpty(line.getProductName()),
+                nullToEmpty(line.getSize()),
+                line.getQuantity() == null ? "" : line.getQuantity().toString(),
+                plain(line.getUnitPrice()));
+    }
+
+    private static LocalDate parseDate(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException(name + " is required (yyyy-MM-dd)");
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(name + " must be a date as yyyy-MM-dd");
+        }
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
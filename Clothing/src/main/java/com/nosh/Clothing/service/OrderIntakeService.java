@@ -0,0 +1,343 @@
+package com.nosh.Clothing.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosh.Clothing.dto.request.OrderCreateRequest;
+import com.nosh.Clothing.dto.response.OrderIntakeResponse;
+import com.nosh.Clothing.dto.response.OrderResponse;
+import com.nosh.Clothing.exception.BadRequestException;
+import com.nosh.Clothing.exception.ResourceNotFoundException;
+import com.nosh.Clothing.exception.ServiceUnavailableException;
+import com.nosh.Clothing.model.OrderIntake;
+import com.nosh.Clothing.model.User;
+import com.nosh.Clothing.repository.OrderIntakeRepository;
+import com.nosh.Clothing.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous checkout. {@link #accept} stores the request as a PENDING {@link OrderIntake} and
+ * queues it; a small pool of worker threads drains the queue and places up to
+ * {@code orders.intake.batch-size} orders per transaction, so a burst costs one commit per batch
+ * and holds at most one connection per worker instead of one per request thread.
+ *
+ * <p>If any order in a batch is refused the whole batch rolls back and its orders are retried one
+ * per transaction, so a sold-out size only rejects the orders that asked for it. The same happens
+ * when the batch fails in the database: each order locks its variants in key order, but a batch
+ * takes several orders' locks in turn and can deadlock with another worker's batch. Intakes are
+ * claimed with {@code FOR UPDATE SKIP LOCKED} and must still be PENDING, so one that is queued
+ * twice (after a restart, or by two nodes) is placed once. Intakes left pending by a full queue or
+ * a crash are queued again by {@link #requeueStalled()}.
+ */
+@Service
+public class OrderIntakeService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntakeService.class);
+    private static final long RETRY_AFTER_SECONDS = 5;
+    private static final long POLL_MILLIS = 500;
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    @Autowired
+    private OrderIntakeRepository orderIntakeRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Keep below the connection pool size, every worker holds a connection while it places a batch
+    @Value("${orders.intake.workers:4}")
+    private int workers;
+
+    @Value("${orders.intake.batch-size:10}")
+    private int batchSize;
+
+    @Value("${orders.intake.requeue-after-ms:60000}")
+    private long requeueAfterMs;
+
+    @Value("${orders.intake.retention-hours:24}")
+    private int retentionHours;
+
+    private final BlockingQueue<Queued> queue;
+    // Ids in the queue or in a batch being placed on this node, so the requeue sweep skips them
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+    private ExecutorService workerPool;
+
+    private final Timer latency;
+    private final DistributionSummary batchSizes;
+    private final Counter placedIntakes;
+    private final Counter rejectedIntakes;
+
+    public OrderIntakeService(@Value("${orders.intake.queue-capacity:1000}") int queueCapacity, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("orders.intake.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.latency = Timer.builder("orders.intake.latency")
+                .description("From accepting an order to placing or rejecting it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("orders.intake.batch.size").register(meterRegistry);
+        this.placedIntakes = Counter.builder("orders.intake").tag("result", "placed").register(meterRegistry);
+        this.rejectedIntakes = Counter.builder("orders.intake").tag("result", "rejected").register(meterRegistry);
+    }
+
+    private record Queued(UUID id, String userEmail, OrderCreateRequest request, LocalDateTime createdAt) {
+    }
+
+    // Java 17 has no virtual threads, so the workers are a fixed pool of named platform threads
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "order-intake-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::work);
+        }
+        // Whatever a previous run accepted but did not place
+        requeuePendingBefore(LocalDateTime.now());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (workerPool != null) {
+            workerPool.shutdown();
+            // Queued intakes stay PENDING in the database and are picked up by the next start
+            workerPool.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    public OrderIntakeResponse accept(Long userId, String userEmail, OrderCreateRequest request) {
+        if (!running || queue.remainingCapacity() == 0) {
+            throw new ServiceUnavailableException("Too many orders are waiting to be placed, please try again shortly", RETRY_AFTER_SECONDS);
+        }
+        OrderIntake intake = new OrderIntake();
+        intake.setUserId(userId);
+        intake.setRequestBody(toJson(request));
+        intake.setStatus(OrderIntake.Status.PENDING);
+        intake.setCreatedAt(LocalDateTime.now());
+        OrderIntake saved = orderIntakeRepository.save(intake);
+        // If the queue filled up in the meantime the record is still stored, and the requeue sweep gets to it
+        enqueue(new Queued(saved.getId(), userEmail, request, saved.getCreatedAt()));
+        return mapToOrderIntakeResponse(saved);
+    }
+
+    public OrderIntakeResponse getIntake(UUID id, Long userId) {
+        return orderIntakeRepository.findById(id)
+                .filter(intake -> intake.getUserId().equals(userId))
+                .map(this::mapToOrderIntakeResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Order intake not found with id: " + id));
+    }
+
+    @Scheduled(initialDelayString = "${orders.intake.requeue-after-ms:60000}",
+            fixedDelayString = "${orders.intake.requeue-after-ms:60000}")
+    public void requeueStalled() {
+        if (running) {
+            requeuePendingBefore(LocalDateTime.now().minus(Duration.ofMillis(requeueAfterMs)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.intake.purge-interval-ms:3600000}")
+    public void purgeCompleted() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> orderIntakeRepository.deleteCompletedBefore(cutoff, PURGE_BATCH_SIZE));
+        } while (deleted >= PURGE_BATCH_SIZE);
+    }
+
+    private void work() {
+        List<Queued> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Queued first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchSizes.record(batch.size());
+                place(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Left PENDING, the requeue sweep tries again
+                log.warn("Order intake batch of {} failed, will retry", batch.size(), e);
+            } finally {
+                batch.forEach(queued -> inFlight.remove(queued.id()));
+                batch.clear();
+            }
+        }
+    }
+
+    private void place(List<Queued> batch) {
+        try {
+            List<Queued> placed = transactionTemplate.execute(status -> placeAll(batch));
+            LocalDateTime now = LocalDateTime.now();
+            for (Queued queued : placed) {
+                latency.record(Duration.between(queued.createdAt(), now));
+            }
+            placedIntakes.increment(placed.size());
+        } catch (BadRequestException | ResourceNotFoundException refused) {
+            if (batch.size() == 1) {
+                reject(batch.get(0), refused.getMessage());
+                return;
+            }
+            // One refused order rolled back the whole batch; place the rest one by one
+            placeEach(batch);
+        } catch (DataAccessException e) {
+            if (batch.size() == 1) {
+                throw e;
+            }
+            // Most likely a deadlock or serialization failure between batches
+            log.info("Order intake batch of {} failed in the database, placing its orders one by one", batch.size(), e);
+            placeEach(batch);
+        }
+    }
+
+    // One order per transaction takes its stock locks in key order, so these only conflict with batches
+    private void placeEach(List<Queued> batch) {
+        for (Queued queued : batch) {
+            try {
+                place(List.of(queued));
+            } catch (TransientDataAccessException e) {
+                try {
+                    place(List.of(queued));
+                } catch (RuntimeException retryFailed) {
+                    // Left PENDING, the requeue sweep tries again
+                    log.warn("Order intake {} failed, will retry", queued.id(), retryFailed);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Order intake {} failed, will retry", queued.id(), e);
+            }
+        }
+    }
+
+    // Intakes already placed or rejected elsewhere, or locked by another worker, are skipped
+    private List<Queued> placeAll(List<Queued> batch) {
+        Map<UUID, Queued> byId = batch.stream().collect(Collectors.toMap(Queued::id, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        List<Queued> placed = new ArrayList<>(batch.size());
+        for (OrderIntake intake : orderIntakeRepository.findPendingForUpdate(byId.keySet())) {
+            Queued queued = byId.get(intake.getId());
+            placed.add(queued);
+            OrderResponse order = orderService.createOrder(queued.userEmail(), queued.request());
+            intake.setStatus(OrderIntake.Status.PLACED);
+            intake.setOrderId(order.getId());
+            intake.setCompletedAt(now);
+        }
+        return placed;
+    }
+
+    private void reject(Queued queued, String message) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (OrderIntake intake : orderIntakeRepository.findPendingForUpdate(List.of(queued.id()))) {
+                intake.setStatus(OrderIntake.Status.REJECTED);
+                intake.setError(message == null || message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH));
+                intake.setCompletedAt(LocalDateTime.now());
+            }
+        });
+        latency.record(Duration.between(queued.createdAt(), LocalDateTime.now()));
+        rejectedIntakes.increment();
+    }
+
+    private void requeuePendingBefore(LocalDateTime before) {
+        int room = queue.remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        List<OrderIntake> pending = orderIntakeRepository.findPendingCreatedBefore(before, Limit.of(room));
+        pending.removeIf(intake -> inFlight.contains(intake.getId()));
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, String> emails = new LinkedHashMap<>();
+        for (User user : userRepository.findAllById(pending.stream().map(OrderIntake::getUserId).distinct().toList())) {
+            emails.put(user.getId(), user.getEmail());
+        }
+        for (OrderIntake intake : pending) {
+            Queued queued = new Queued(intake.getId(), emails.get(intake.getUserId()),
+                    fromJson(intake.getRequestBody()), intake.getCreatedAt());
+            if (queued.userEmail() == null) {
+                reject(queued, "User not found");
+            } else {
+                enqueue(queued);
+            }
+        }
+        log.info("Requeued {} pending order intakes", pending.size());
+    }
+
+    private void enqueue(Queued queued) {
+        if (inFlight.add(queued.id()) && !queue.offer(queued)) {
+            inFlight.remove(queued.id());
+        }
+    }
+
+    private String toJson(OrderCreateRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order request", e);
+        }
+    }
+
+    private OrderCreateRequest fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, OrderCreateRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored order request", e);
+        }
+    }
+
+    private OrderIntakeResponse mapToOrderIntakeResponse(OrderIntake intake) {
+        return new OrderIntakeResponse(intake.getId(), intake.getStatus(), intake.getOrderId(), intake.getError(),
+                intake.getCreatedAt(), intake.getCompletedAt());
+    }
+}
@@ -1,21 +1,29 @@
 package com.nosh.Clothing.service;
 
 import com.nosh.Clothing.dto.request.OrderCreateRequest;
+import com.nosh.Clothing.dto.request.OrderQuoteRequest;
 import com.nosh.Clothing.dto.request.OrderStatusUpdateRequest;
 import com.nosh.Clothing.dto.response.OrderItemResponse;
+import com.nosh.Clothing.dto.response.OrderLineSummary;
+import com.nosh.Clothing.dto.response.OrderQuoteResponse;
 import com.nosh.Clothing.dto.response.OrderResponse;
-import com.nosh.Clothing.dto.response.ProductResponse;
+import com.nosh.Clothing.dto.response.OrderSummaryResponse;
 import com.nosh.Clothing.dto.response.UserResponse;
-import com.nosh.Clothing.exception.BadRequestException;
 import com.nosh.Clothing.exception.ResourceNotFoundException;
 import com.nosh.Clothing.model.Order;
 import com.nosh.Clothing.model.OrderItem;
 import com.nosh.Clothing.model.Product;
+import com.nosh.Clothing.model.ProductVariant;
 import com.nosh.Clothing.model.User;
+import com.nosh.Clothing.repository.OrderItemRepository;
 import com.nosh.Clothing.repository.OrderRepository;
 import com.nosh.Clothing.repository.ProductRepository;
 import com.nosh.Clothing.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -23,26 +31,46 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Autowired
+    private ProductService productService;
+
     @Transactional
     public OrderResponse createOrder(OrderCreateRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String userEmail = authentication.getName();
+        return createOrder(authentication.getName(), request);
+    }
 
+    // For callers without the customer's security context, such as the order intake workers
+    @Transactional
+    public OrderResponse createOrder(String userEmail, OrderCreateRequest request) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
@@ -51,30 +79,33 @@ public class OrderService {
         order.setShippingAddress(request.getShippingAddress());
         order.setStatus(Order.Status.PLACED);
 
+        // With a hold the stock was taken when the customer reached checkout; otherwise take it now
+        SortedMap<ProductVariant.Key, Integer> quantitiesByVariant = StockHoldService.quantitiesByVariant(request.getItems());
+        if (request.getHoldId() != null) {
+            stockHoldService.convertHold(request.getHoldId(), user, quantitiesByVariant);
+        } else {
+            stockHoldService.takeStock(quantitiesByVariant);
+        }
+
+        Set<Long> productIds = quantitiesByVariant.keySet().stream().map(ProductVariant.Key::productId).collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalPrice = BigDecimal.ZERO;
 
         for (OrderCreateRequest.OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + itemRequest.getProductId()));
-
-            if (product.getQuantityInStock() < itemRequest.getQuantity()) {
-                throw new BadRequestException("Insufficient stock for product: " + product.getName());
-            }
+            Product product = products.get(itemRequest.getProductId());
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setProduct(product);
-            orderItem.setSize(itemRequest.getSize());
+            orderItem.setSize(itemRequest.getSize().trim());
             orderItem.setQuantity(itemRequest.getQuantity());
             orderItem.setPrice(product.getPrice());
 
             orderItems.add(orderItem);
             totalPrice = totalPrice.add(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
-
-            // Update product stock
-            product.setQuantityInStock(product.getQuantityInStock() - itemRequest.getQuantity());
-            productRepository.save(product);
         }
 
         order.setItems(orderItems);
@@ -84,24 +115,87 @@ public class OrderService {
         return mapToOrderResponse(savedOrder);
     }
 
-    public List<OrderResponse> getUserOrders() {
+    /**
+     * Prices a cart against current prices and stock without reserving anything. Lines for the same
+     * product and size are checked against stock together, as {@link #createOrder} would.
+     */
+    @Transactional(readOnly = true)
+    public OrderQuoteResponse quoteOrder(OrderQuoteRequest request) {
+        Map<ProductVariant.Key, Integer> quantitiesByVariant = new HashMap<>();
+        for (OrderCreateRequest.OrderItemRequest item : request.getItems()) {
+            quantitiesByVariant.merge(new ProductVariant.Key(item.getProductId(), item.getSize().trim()),
+                    item.getQuantity(), Integer::sum);
+        }
+
+        Map<Long, ProductRepository.VariantPriceView> productsById = new HashMap<>();
+        Map<ProductVariant.Key, Integer> stockByVariant = new HashMap<>();
+        Set<Long> productIds = quantitiesByVariant.keySet().stream().map(ProductVariant.Key::productId).collect(Collectors.toSet());
+        for (ProductRepository.VariantPriceView row : productRepository.findVariantPrices(productIds)) {
+            productsById.putIfAbsent(row.getProductId(), row);
+            if (row.getSize() != null) {
+                stockByVariant.put(new ProductVariant.Key(row.getProductId(), row.getSize()), row.getStock());
+            }
+        }
+
+        List<OrderQuoteResponse.Line> lines = new ArrayList<>(request.getItems().size());
+        BigDecimal total = BigDecimal.ZERO;
+        boolean orderable = true;
+        for (OrderCreateRequest.OrderItemRequest item : request.getItems()) {
+            ProductVariant.Key key = new ProductVariant.Key(item.getProductId(), item.getSize().trim());
+            ProductRepository.VariantPriceView product = productsById.get(key.productId());
+            Integer stock = stockByVariant.get(key);
+            OrderQuoteResponse.Availability availability;
+            if (product == null) {
+                availability = OrderQuoteResponse.Availability.PRODUCT_NOT_FOUND;
+            } else if (stock == null) {
+                availability = OrderQuoteResponse.Availability.SIZE_UNAVAILABLE;
+            } else if (stock < quantitiesByVariant.get(key)) {
+                availability = OrderQuoteResponse.Availability.INSUFFICIENT_STOCK;
+            } else {
+                availability = OrderQuoteResponse.Availability.IN_STOCK;
+            }
+            orderable &= availability == OrderQuoteResponse.Availability.IN_STOCK;
+
+            BigDecimal unitPrice = product == null ? null : product.getPrice();
+            BigDecimal lineTotal = unitPrice == null ? null : unitPrice.multiply(BigDecimal.valueOf(item.getQuantity()));
+            if (lineTotal != null) {
+                total = total.add(lineTotal);
+            }
+            lines.add(new OrderQuoteResponse.Line(key.productId(), product == null ? null : product.getName(),
+                    key.size(), item.getQuantity(), unitPrice, lineTotal, stock, availability));
+        }
+        return new OrderQuoteResponse(lines, total, orderable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryResponse> getUserOrders(int page, int size) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String userEmail = authentication.getName();
 
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return withLines(orderRepository.findSummariesByUserEmail(userEmail, newestFirst(page, size)));
+    }
 
-        return orderRepository.findByUserOrderByCreatedAtDesc(user).stream()
-                .map(this::mapToOrderResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryResponse> getAllOrders(int page, int size) {
+        return withLines(orderRepository.findAllSummaries(newestFirst(page, size)));
     }
 
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAllByOrderByCreatedAtDesc().stream()
-                .map(this::mapToOrderResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(Long orderId) {
+        Order order = orderRepository.findWithDetailsById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+
+        // Customers only see their own orders; report others as missing rather than forbidden
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if (!isAdmin && !order.getUser().getEmail().equals(authentication.getName())) {
+            throw new ResourceNotFoundException("Order not found with id: " + orderId);
+        }
+        return mapToOrderResponse(order);
     }
 
+    @Transactional
     public OrderResponse updateOrderStatus(Long orderId, OrderStatusUpdateRequest request) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
@@ -111,6 +205,23 @@ public class OrderService {
         return mapToOrderResponse(updatedOrder);
     }
 
+    private Pageable newestFirst(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)),
+                Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+    }
+
+    // One query for every line on the page, grouped back onto their orders
+    private Page<OrderSummaryResponse> withLines(Page<OrderSummaryResponse> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+        List<Long> orderIds = summaries.map(OrderSummaryResponse::getId).getContent();
+        Map<Long, List<OrderLineSummary>> linesByOrder = orderItemRepository.findLineSummaries(orderIds).stream()
+                .collect(Collectors.groupingBy(OrderLineSummary::getOrderId));
+        summaries.forEach(summary -> summary.setItems(linesByOrder.getOrDefault(summary.getId(), List.of())));
+        return summaries;
+    }
+
     private OrderResponse mapToOrderResponse(Order order) {
         OrderResponse response = new OrderResponse();
         response.setId(order.getId());
@@ -132,7 +243,8 @@ public class OrderService {
     private OrderItemResponse mapToOrderItemResponse(OrderItem orderItem) {
         OrderItemResponse response = new OrderItemResponse();
         response.setId(orderItem.getId());
-        response.setProduct(mapToProductResponse(orderItem.getProduct()));
+        Product product = orderItem.getProduct();
+        response.setProduct(productService.mapToProductResponse(product, product.getVariants()));
         response.setSize(orderItem.getSize());
         response.setQuantity(orderItem.getQuantity());
         response.setPrice(orderItem.getPrice());
@@ -148,19 +260,4 @@ public class OrderService {
         response.setRole(user.getRole());
         return response;
     }
-
-    private ProductResponse mapToProductResponse(Product product) {
-        ProductResponse response = new ProductResponse();
-        response.setId(product.getId());
-        response.setName(product.getName());
-        response.setDescription(product.getDescription());
-        response.setPrice(product.getPrice());
-        response.setCategory(product.getCategory());
-        response.setImageUrl(product.getImageUrl());
-        response.setSizes(product.getSizes());
-        response.setQuantityInStock(product.getQuantityInStock());
-        response.setCreatedAt(product.getCreatedAt());
-        response.setUpdatedAt(product.getUpdatedAt());
-        return response;
-    }
 }
@@ -0,0 +1,26 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in the product change feed: the last change sequence a client has seen.
+ * Tokens issued before the prune watermark existed also carried their issue time, which is ignored.
+ */
+record ProductChangeToken(long sequence) {
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(sequence).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductChangeToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new ProductChangeToken(Long.parseLong(raw.split("\n", 2)[0]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid change token");
+        }
+    }
+}
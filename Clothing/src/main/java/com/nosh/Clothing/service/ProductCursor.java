@@ -0,0 +1,32 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.dto.request.ProductPageRequest;
+import com.nosh.Clothing.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort it belongs to, the id of the last row served and that
+ * row's sort key. Encoded as URL-safe base64 so clients treat it as a token.
+ */
+record ProductCursor(ProductPageRequest.Sort sort, Long id, String key) {
+
+    String encode() {
+        String raw = sort.name() + "\n" + id + "\n" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductCursor decode(String token, ProductPageRequest.Sort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 3);
+            if (parts.length != 3 || !parts[0].equals(expectedSort.name())) {
+                throw new BadRequestException("Cursor does not match the requested sort");
+            }
+            return new ProductCursor(expectedSort, Long.parseLong(parts[1]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.nosh.Clothing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosh.Clothing.dto.response.ProductResponse;
+import com.nosh.Clothing.dto.response.ProductVariantResponse;
+import com.nosh.Clothing.model.ProductVariant;
+import com.nosh.Clothing.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Full catalog export for feed partners. Rows are read over a database cursor and written out as
+ * they arrive, so memory use does not grow with the catalog. The output is flushed after the first
+ * product to get bytes to the client at once, then only as the write buffer fills.
+ */
+@Service
+public class ProductExportService {
+
+    private static final int FETCH_SIZE = 500;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final List<String> CSV_COLUMNS = List.of(
+            "id", "name", "description", "price", "category", "imageUrl", "variants", "quantityInStock",
+            "createdAt", "updatedAt");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter exportedRows;
+
+    public ProductExportService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.exportedRows = Counter.builder("catalog.export.rows").register(meterRegistry);
+    }
+
+    public void exportProducts(OutputStream out, FileFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        CsvWriter csv = new CsvWriter(writer);
+        if (format == FileFormat.CSV) {
+            csv.writeRow(CSV_COLUMNS);
+            writer.flush();
+        }
+
+        long[] written = {0};
+        try {
+            // The cursor only streams inside a transaction; outside one the driver buffers the whole result
+            readOnlyTransaction.executeWithoutResult(status -> {
+                Map<ProductVariant.Key, Integer> allotted = productService.allottedStock();
+                productRepository.streamAllWithVariants(FETCH_SIZE, product -> {
+                    ProductResponse response = productService.mapToProductResponse(product, product.getVariants(), allotted);
+                    try {
+                        if (format == FileFormat.CSV) {
+                            csv.writeRow(toCsvRow(response));
+                        } else {
+                            writer.write(objectMapper.writeValueAsString(response));
+                            writer.write('\n');
+                        }
+                        if (++written[0] == 1) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the exception ends the query and releases the connection
+            throw e.getCause();
+        } finally {
+            exportedRows.increment(written[0]);
+        }
+        writer.flush();
+    }
+
+    private List<String> toCsvRow(ProductResponse product) {
+        String variants = product.getVariants().stream()
+                .map(variant -> variant.getSize() + ":" + variant.getStock())
+                .collect(Collectors.joining(";"));
+        return List.of(
+                String.valueOf(product.getId()),
+                nullToEmpty(product.getName()),
+                nullToEmpty(product.getDescription()),
+                product.getPrice().toPlainString(),
+                nullToEmpty(product.getCategory()),
+                nullToEmpty(product.getImageUrl()),
+                variants,
+                String.valueOf(product.getVariants().stream().mapToInt(ProductVariantResponse::getStock).sum()),
+                product.getCreatedAt() == null ? "" : product.getCreatedAt().toString(),
+                product.getUpdatedAt() == null ? "" : product.getUpdatedAt().toString());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
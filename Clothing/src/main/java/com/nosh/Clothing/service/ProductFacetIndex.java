@@ -0,0 +1,205 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.dto.response.ProductFacetsResponse;
+import com.nosh.Clothing.dto.response.ProductResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Facet counters for the catalog, kept per (category, price) cell so any filter can be answered by
+ * folding a few hundred cells instead of grouping over the products table. Each facet ignores its own
+ * filter (the category list stays complete while a category is selected) and honours the others.
+ * Product writes and committed stock movements adjust the counters in place.
+ */
+@Component
+public class ProductFacetIndex {
+
+    private static final List<String> LETTER_SIZES = List.of("XXS", "XS", "S", "M", "L", "XL", "XXL", "XXXL");
+    private static final Comparator<String> SIZE_ORDER = Comparator
+            .comparingInt(ProductFacetIndex::sizeGroup)
+            .thenComparingInt(ProductFacetIndex::sizeRank)
+            .thenComparing(Comparator.naturalOrder());
+
+    private final BigDecimal bucketWidth;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<CellKey, Cell> cells = new HashMap<>();
+
+    public ProductFacetIndex(@Value("${catalog.facets.price-bucket-width:25}") BigDecimal bucketWidth) {
+        this.bucketWidth = bucketWidth;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.fullReload()) {
+                entries.clear();
+                cells.clear();
+            }
+            event.removed().forEach(this::remove);
+            for (ProductResponse product : event.upserted()) {
+                remove(product.getId());
+                Map<String, Integer> stockBySize = new LinkedHashMap<>();
+                if (product.getVariants() != null) {
+                    product.getVariants().forEach(variant -> stockBySize.put(variant.getSize(), variant.getStock()));
+                }
+                add(product.getId(), new Entry(product.getCategory(), normalizePrice(product.getPrice()), Map.copyOf(stockBySize)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.deltas().forEach((variant, delta) -> {
+                Entry entry = entries.get(variant.productId());
+                if (entry != null && entry.stockBySize().containsKey(variant.size())) {
+                    remove(variant.productId());
+                    add(variant.productId(), entry.withStock(variant.size(),
+                            Math.max(0, entry.stockBySize().get(variant.size()) + delta)));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductFacetsResponse facets(String category, BigDecimal minPrice, BigDecimal maxPrice, String size) {
+        Map<String, Integer> categories = new TreeMap<>();
+        Map<Long, Integer> buckets = new TreeMap<>();
+        Map<String, int[]> sizes = new TreeMap<>(SIZE_ORDER);
+        int total = 0;
+        int inStock = 0;
+
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<CellKey, Cell> cellEntry : cells.entrySet()) {
+                CellKey key = cellEntry.getKey();
+                Cell cell = cellEntry.getValue();
+                boolean categoryMatches = category == null || category.equals(key.category());
+                boolean priceMatches = (minPrice == null || key.price().compareTo(minPrice) >= 0)
+                        && (maxPrice == null || key.price().compareTo(maxPrice) <= 0);
+                int count = size == null ? cell.products : cell.offeredBySize.getOrDefault(size, 0);
+
+                if (priceMatches && count > 0 && key.category() != null) {
+                    categories.merge(key.category(), count, Integer::sum);
+                }
+                if (categoryMatches && count > 0) {
+                    buckets.merge(bucketOf(key.price()), count, Integer::sum);
+                }
+                if (categoryMatches && priceMatches) {
+                    cell.offeredBySize.forEach((offered, n) -> sizes.computeIfAbsent(offered, s -> new int[2])[0] += n);
+                    cell.inStockBySize.forEach((offered, n) -> sizes.computeIfAbsent(offered, s -> new int[2])[1] += n);
+                    total += count;
+                    inStock += size == null ? cell.inStock : cell.inStockBySize.getOrDefault(size, 0);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ProductFacetsResponse.CategoryCount> categoryCounts = new ArrayList<>();
+        categories.forEach((name, count) -> categoryCounts.add(new ProductFacetsResponse.CategoryCount(name, count)));
+        List<ProductFacetsResponse.PriceBucket> priceBuckets = new ArrayList<>();
+        buckets.forEach((bucket, count) -> priceBuckets.add(new ProductFacetsResponse.PriceBucket(
+                bucketWidth.multiply(BigDecimal.valueOf(bucket)), bucketWidth.multiply(BigDecimal.valueOf(bucket + 1)), count)));
+        List<ProductFacetsResponse.SizeCount> sizeCounts = new ArrayList<>();
+        sizes.forEach((name, counts) -> sizeCounts.add(new ProductFacetsResponse.SizeCount(name, counts[0], counts[1])));
+        return new ProductFacetsResponse(total, inStock, categoryCounts, priceBuckets, sizeCounts);
+    }
+
+    private void add(Long productId, Entry entry) {
+        entries.put(productId, entry);
+        Cell cell = cells.computeIfAbsent(new CellKey(entry.category(), entry.price()), key -> new Cell());
+        cell.apply(entry, 1);
+    }
+
+    private void remove(Long productId) {
+        Entry entry = entries.remove(productId);
+        if (entry == null) {
+            return;
+        }
+        CellKey key = new CellKey(entry.category(), entry.price());
+        Cell cell = cells.get(key);
+        cell.apply(entry, -1);
+        if (cell.products == 0) {
+            cells.remove(key);
+        }
+    }
+
+    private long bucketOf(BigDecimal price) {
+        return price.divide(bucketWidth, 0, RoundingMode.FLOOR).longValue();
+    }
+
+    private static BigDecimal normalizePrice(BigDecimal price) {
+        return price == null ? BigDecimal.ZERO : price.stripTrailingZeros();
+    }
+
+    private static int sizeGroup(String size) {
+        if (LETTER_SIZES.contains(size)) {
+            return 0;
+        }
+        return size.chars().allMatch(Character::isDigit) ? 1 : 2;
+    }
+
+    private static int sizeRank(String size) {
+        int letter = LETTER_SIZES.indexOf(size);
+        if (letter >= 0) {
+            return letter;
+        }
+        return size.chars().allMatch(Character::isDigit) && size.length() < 10 ? Integer.parseInt(size) : 0;
+    }
+
+    private record CellKey(String category, BigDecimal price) {
+    }
+
+    private record Entry(String category, BigDecimal price, Map<String, Integer> stockBySize) {
+
+        boolean inStock() {
+            return stockBySize.values().stream().anyMatch(stock -> stock > 0);
+        }
+
+        Entry withStock(String size, int stock) {
+            Map<String, Integer> updated = new HashMap<>(stockBySize);
+            updated.put(size, stock);
+            return new Entry(category, price, Map.copyOf(updated));
+        }
+    }
+
+    private static final class Cell {
+        int products;
+        int inStock;
+        final Map<String, Integer> offeredBySize = new HashMap<>();
+        final Map<String, Integer> inStockBySize = new HashMap<>();
+
+        void apply(Entry entry, int sign) {
+            products += sign;
+            if (entry.inStock()) {
+                inStock += sign;
+            }
+            entry.stockBySize().forEach((size, stock) -> {
+                offeredBySize.merge(size, sign, (a, b) -> a + b == 0 ? null : a + b);
+                if (stock > 0) {
+                    inStockBySize.merge(size, sign, (a, b) -> a + b == 0 ? null : a + b);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.nosh.Clothing.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosh.Clothing.dto.request.ProductCreateRequest;
+import com.nosh.Clothing.dto.request.ProductVariantRequest;
+import com.nosh.Clothing.dto.response.ProductImportResponse;
+import com.nosh.Clothing.exception.BadRequestException;
+import com.nosh.Clothing.model.Product;
+import com.nosh.Clothing.model.ProductVariant;
+import com.nosh.Clothing.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import from CSV or newline-delimited JSON. The upload is read one row at a time,
+ * rows are checked against the same constraints as {@code POST /api/admin/products}, and valid rows
+ * are inserted in JDBC batches, one transaction per batch. A batch the database rejects fails as a
+ * whole; earlier batches stay committed. The in-memory catalog views are reloaded once at the end.
+ */
+@Service
+public class ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "price", "category");
+    private static final List<String> KNOWN_COLUMNS = List.of(
+            "name", "description", "price", "category", "imageurl", "sizes", "quantityinstock", "variants");
+    // Present in exports; an import always creates new products
+    private static final List<String> IGNORED_COLUMNS = List.of("id", "createdat", "updatedat");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.import.batch-size:1000}")
+    private int batchSize;
+
+    private final Counter importedRows;
+    private final Counter failedRows;
+
+    public ProductImportService(MeterRegistry meterRegistry) {
+        this.importedRows = Counter.builder("catalog.import.rows").tag("result", "imported").register(meterRegistry);
+        this.failedRows = Counter.builder("catalog.import.rows").tag("result", "failed").register(meterRegistry);
+    }
+
+    private record Row(long line, ProductCreateRequest request, String error) {
+    }
+
+    private interface RowSource {
+        // Null at end of input
+        Row next() throws IOException;
+    }
+
+    private final class ImportRun {
+        final long start = System.nanoTime();
+        final List<Long> batchLines = new ArrayList<>();
+        final List<Product> batch = new ArrayList<>();
+        final List<ProductImportResponse.RowError> errors = new ArrayList<>();
+        long received;
+        long imported;
+        long failed;
+
+        void reject(long line, String message) {
+            failed++;
+            failedRows.increment();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportResponse.RowError(line, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> productRepository.insertAll(batch));
+                imported += batch.size();
+                importedRows.increment(batch.size());
+            } catch (DataAccessException e) {
+                String message = "Batch rejected by the database: " + e.getMostSpecificCause().getMessage();
+                batchLines.forEach(line -> reject(line, message));
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+
+        ProductImportResponse finish() {
+            long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+            return new ProductImportResponse(received, imported, failed, elapsedNanos / 1_000_000,
+                    imported * 1_000_000_000L / elapsedNanos, errors);
+        }
+    }
+
+    public ProductImportResponse importProducts(InputStream body, FileFormat format) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        ImportRun run = new ImportRun();
+        try {
+            RowSource rows = format == FileFormat.CSV ? csvRows(reader) : ndjsonRows(reader);
+            for (Row row = rows.next(); row != null; row = rows.next()) {
+                run.received++;
+                if (row.error() != null) {
+                    run.reject(row.line(), row.error());
+                    continue;
+                }
+                Product product = toProduct(row, run);
+                if (product == null) {
+                    continue;
+                }
+                run.batch.add(product);
+                run.batchLines.add(row.line());
+                if (run.batch.size() >= batchSize) {
+                    run.flush();
+                }
+            }
+            run.flush();
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read the upload: " + e.getMessage());
+        } finally {
+            if (run.imported > 0) {
+                productService.refreshCatalog();
+            }
+        }
+        return run.finish();
+    }
+
+    // Null when the row is rejected; the reason is recorded on the run
+    private Product toProduct(Row row, ImportRun run) {
+        ProductCreateRequest request = row.request();
+        Set<ConstraintViolation<ProductCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            run.reject(row.line(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+
+        Map<String, Integer> stockBySize;
+        try {
+            List<ProductVariantRequest> variants = productService.resolveVariants(request);
+            for (ProductVariantRequest variant : variants) {
+                Set<ConstraintViolation<ProductVariantRequest>> variantViolations = validator.validate(variant);
+                if (!variantViolations.isEmpty()) {
+                    ConstraintViolation<ProductVariantRequest> violation = variantViolations.iterator().next();
+                    throw new BadRequestException("size " + variant.getSize() + ": "
+                            + violation.getPropertyPath() + " " + violation.getMessage());
+                }
+            }
+            stockBySize = ProductService.stockBySize(variants);
+        } catch (BadRequestException e) {
+            run.reject(row.line(), e.getMessage());
+            return null;
+        }
+
+        Product product = new Product();
+        product.setName(request.getName());
+        product.setDescription(request.getDescription());
+        product.setPrice(request.getPrice());
+        product.setCategory(request.getCategory());
+        product.setImageUrl(request.getImageUrl());
+        stockBySize.forEach((size, stock) -> {
+            ProductVariant variant = new ProductVariant();
+            variant.setProduct(product);
+            variant.setSize(size);
+            variant.setStock(stock);
+            product.getVariants().add(variant);
+        });
+        return product;
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                // A literal null, array or scalar is a bad row, not a null request
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    return new Row(lineNumber[0], null, "Each line must be a JSON object");
+                }
+                return new Row(lineNumber[0], objectMapper.treeToValue(node, ProductCreateRequest.class), null);
+            } catch (JsonProcessingException e) {
+                return new Row(lineNumber[0], null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    // The first record names the columns; header names ignore case, spaces and underscores
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new BadRequestException("The upload is empty");
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String name : header) {
+            String column = name.replace("\uFEFF", "").replaceAll("[\\s_]", "").toLowerCase(Locale.ROOT);
+            if (!KNOWN_COLUMNS.contains(column) && !IGNORED_COLUMNS.contains(column)) {
+                throw new BadRequestException("Unknown column: " + name.trim());
+            }
+            columns.add(column);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.contains(required)) {
+                throw new BadRequestException("Missing column: " + required);
+            }
+        }
+
+        return () -> {
+            List<String> fields = csv.next();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != columns.size()) {
+                return new Row(csv.recordLine(), null,
+                        "Expected " + columns.size() + " columns, found " + fields.size());
+            }
+            try {
+                return new Row(csv.recordLine(), toRequest(columns, fields), null);
+            } catch (IllegalArgumentException e) {
+                return new Row(csv.recordLine(), null, e.getMessage());
+            }
+        };
+    }
+
+    private ProductCreateRequest toRequest(List<String> columns, List<String> fields) {
+        ProductCreateRequest request = new ProductCreateRequest();
+        for (int i = 0; i < columns.size(); i++) {
+            String value = fields.get(i).trim();
+            if (value.isEmpty() || IGNORED_COLUMNS.contains(columns.get(i))) {
+                continue;
+            }
+            switch (columns.get(i)) {
+                case "name" -> request.setName(value);
+                case "description" -> request.setDescription(value);
+                case "price" -> request.setPrice(parse("price", value, BigDecimal::new));
+                case "category" -> request.setCategory(value);
+                case "imageurl" -> request.setImageUrl(value);
+                case "sizes" -> request.setSizes(value);
+                case "quantityinstock" -> request.setQuantityInStock(parse("quantityInStock", value, Integer::valueOf));
+                case "variants" -> request.setVariants(parseVariants(value));
+                default -> throw new IllegalStateException(columns.get(i));
+            }
+        }
+        return request;
+    }
+
+    // "S:10;M:12;L:4"
+    private List<ProductVariantRequest> parseVariants(String value) {
+        List<ProductVariantRequest> variants = new ArrayList<>();
+        for (String entry : value.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("variants must look like S:10;M:12, found: " + entry.trim());
+            }
+            ProductVariantRequest variant = new ProductVariantRequest();
+            variant.setSize(entry.substring(0, separator).trim());
+            variant.setStock(parse("variants", entry.substring(separator + 1).trim(), Integer::valueOf));
+            variants.add(variant);
+        }
+        return variants;
+    }
+
+    private static <T> T parse(String column, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+}
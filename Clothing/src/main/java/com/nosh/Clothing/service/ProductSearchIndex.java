@@ -0,0 +1,207 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.dto.response.ProductResponse;
+import com.nosh.Clothing.dto.response.ProductSearchResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * In-process inverted index over product name, category and description with BM25 ranking.
+ * Kept in sync from {@link CatalogChangedEvent}s; full reloads build a fresh index and single
+ * product writes are applied to a copy, and either is swapped in once complete, so a query always
+ * reads one finished index. Queries never touch the database.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Field boosts folded into term frequencies (a simplified BM25F)
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final Comparator<Map.Entry<Long, Double>> BY_SCORE =
+            Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private volatile IndexState state = new IndexState();
+    private final Timer searchTimer;
+
+    public ProductSearchIndex(MeterRegistry meterRegistry) {
+        this.searchTimer = Timer.builder("catalog.search.latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.fullReload()) {
+            IndexState rebuilt = new IndexState();
+            event.upserted().forEach(rebuilt::add);
+            state = rebuilt;
+        } else {
+            IndexState changed = state.copy();
+            event.removed().forEach(changed::remove);
+            event.upserted().forEach(changed::add);
+            state = changed;
+        }
+    }
+
+    public ProductSearchResponse search(String query, int page, int size) {
+        return searchTimer.record(() -> doSearch(query, page, size));
+    }
+
+    private ProductSearchResponse doSearch(String query, int page, int size) {
+        IndexState index = state;
+        Set<String> queryTerms = new LinkedHashSet<>(TextAnalyzer.terms(query));
+        int docCount = index.docs.size();
+        if (queryTerms.isEmpty() || docCount == 0) {
+            return new ProductSearchResponse(List.of(), 0, page, size);
+        }
+
+        double averageLength = Math.max(index.totalLength / docCount, 1.0);
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : queryTerms) {
+            Map<Long, Float> postings = index.postings.get(term);
+            if (postings == null) {
+                continue;
+            }
+            int df = postings.size();
+            double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            for (Map.Entry<Long, Float> posting : postings.entrySet()) {
+                Doc doc = index.docs.get(posting.getKey());
+                if (doc == null) {
+                    continue;
+                }
+                double tf = posting.getValue();
+                double norm = K1 * (1 - B + B * doc.length() / averageLength);
+                scores.merge(posting.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+            }
+        }
+
+        // Keep only as many candidates as the requested page needs
+        int needed = (page + 1) * size;
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(needed + 1, BY_SCORE.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > needed) {
+                top.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(top);
+        ranked.sort(BY_SCORE);
+
+        List<ProductSearchResponse.Hit> hits = new ArrayList<>();
+        for (int i = page * size; i < ranked.size(); i++) {
+            Doc doc = index.docs.get(ranked.get(i).getKey());
+            if (doc != null) {
+                hits.add(new ProductSearchResponse.Hit(doc.product(), ranked.get(i).getValue(), highlights(doc.product(), queryTerms)));
+            }
+        }
+        return new ProductSearchResponse(hits, scores.size(), page, size);
+    }
+
+    private List<ProductSearchResponse.Highlight> highlights(ProductResponse product, Set<String> queryTerms) {
+        List<ProductSearchResponse.Highlight> highlights = new ArrayList<>();
+        addHighlights(highlights, "name", product.getName(), queryTerms);
+        addHighlights(highlights, "category", product.getCategory(), queryTerms);
+        addHighlights(highlights, "description", product.getDescription(), queryTerms);
+        return highlights;
+    }
+
+    private void addHighlights(List<ProductSearchResponse.Highlight> highlights, String field, String text, Set<String> queryTerms) {
+        for (TextAnalyzer.Token token : TextAnalyzer.analyze(text)) {
+            if (queryTerms.contains(token.term())) {
+                highlights.add(new ProductSearchResponse.Highlight(field, token.start(), token.end()));
+            }
+        }
+    }
+
+    private record Doc(ProductResponse product, Map<String, Float> termFrequencies, float length) {
+    }
+
+    /**
+     * Never changed once published. {@link #copy()} shares the posting lists with the original and
+     * a list is copied the first time an edit touches it, so a single product write costs the
+     * terms it touches rather than the whole index.
+     */
+    private static final class IndexState {
+        final Map<Long, Doc> docs;
+        final Map<String, Map<Long, Float>> postings;
+        // Posting lists created by this state, safe to change until it is published
+        private final Set<String> ownedTerms = new HashSet<>();
+        double totalLength;
+
+        IndexState() {
+            this(new HashMap<>(), new HashMap<>(), 0);
+        }
+
+        private IndexState(Map<Long, Doc> docs, Map<String, Map<Long, Float>> postings, double totalLength) {
+            this.docs = docs;
+            this.postings = postings;
+            this.totalLength = totalLength;
+        }
+
+        IndexState copy() {
+            return new IndexState(new HashMap<>(docs), new HashMap<>(postings), totalLength);
+        }
+
+        void add(ProductResponse product) {
+            remove(product.getId());
+
+            Map<String, Float> frequencies = new HashMap<>();
+            accumulate(frequencies, product.getName(), NAME_WEIGHT);
+            accumulate(frequencies, product.getCategory(), CATEGORY_WEIGHT);
+            accumulate(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+            float length = (float) frequencies.values().stream().mapToDouble(Float::doubleValue).sum();
+
+            docs.put(product.getId(), new Doc(product, frequencies, length));
+            frequencies.forEach((term, tf) -> ownedPostings(term).put(product.getId(), tf));
+            totalLength += length;
+        }
+
+        void remove(Long productId) {
+            Doc doc = docs.remove(productId);
+            if (doc == null) {
+                return;
+            }
+            for (String term : doc.termFrequencies().keySet()) {
+                if (postings.containsKey(term)) {
+                    Map<Long, Float> ids = ownedPostings(term);
+                    ids.remove(productId);
+                    if (ids.isEmpty()) {
+                        postings.remove(term);
+                        ownedTerms.remove(term);
+                    }
+                }
+            }
+            totalLength -= doc.length();
+        }
+
+        private Map<Long, Float> ownedPostings(String term) {
+            if (ownedTerms.add(term)) {
+                Map<Long, Float> shared = postings.get(term);
+                postings.put(term, shared == null ? new HashMap<>() : new HashMap<>(shared));
+            }
+            return postings.get(term);
+        }
+
+        private static void accumulate(Map<String, Float> frequencies, String text, float weight) {
+            for (String term : TextAnalyzer.terms(text)) {
+                frequencies.merge(term, weight, Float::sum);
+            }
+        }
+    }
+}
@@ -1,35 +1,262 @@
 package com.nosh.Clothing.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nosh.Clothing.dto.request.ProductCreateRequest;
+import com.nosh.Clothing.dto.request.ProductPageRequest;
 import com.nosh.Clothing.dto.request.ProductUpdateRequest;
+import com.nosh.Clothing.dto.request.ProductVariantRequest;
+import com.nosh.Clothing.dto.response.ProductChangesResponse;
+import com.nosh.Clothing.dto.response.ProductFacetsResponse;
+import com.nosh.Clothing.dto.response.ProductPageResponse;
 import com.nosh.Clothing.dto.response.ProductResponse;
+import com.nosh.Clothing.dto.response.ProductSearchResponse;
+import com.nosh.Clothing.dto.response.ProductSuggestResponse;
+import com.nosh.Clothing.dto.response.ProductVariantResponse;
+import com.nosh.Clothing.exception.BadRequestException;
 import com.nosh.Clothing.exception.ResourceNotFoundException;
+import com.nosh.Clothing.model.ChangeFeedWatermark;
 import com.nosh.Clothing.model.Product;
+import com.nosh.Clothing.model.ProductTombstone;
+import com.nosh.Clothing.model.ProductVariant;
+import com.nosh.Clothing.repository.ChangeFeedWatermarkRepository;
+import com.nosh.Clothing.repository.HotStockAllotmentRepository;
+import com.nosh.Clothing.repository.OrderItemRepository;
 import com.nosh.Clothing.repository.ProductRepository;
+import com.nosh.Clothing.repository.ProductRepositoryCustom;
+import com.nosh.Clothing.repository.ProductTombstoneRepository;
+import com.nosh.Clothing.repository.ProductVariantRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_CHANGES_PAGE_SIZE = 1000;
+
+    // First-page cursors sit just outside the column ranges so every page runs the same seek query
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private ProductTombstoneRepository productTombstoneRepository;
+
+    @Autowired
+    private ChangeFeedWatermarkRepository changeFeedWatermarkRepository;
+
+    @Autowired
+    private HotStockAllotmentRepository allotmentRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.suggest.sales-window-days:30}")
+    private int salesWindowDays;
+
+    @Value("${catalog.changes.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    // Writes on this node update the in-memory views immediately; the periodic rebuild picks up writes made by other nodes
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.cache.refresh-interval-ms:300000}",
+            fixedDelayString = "${catalog.cache.refresh-interval-ms:300000}")
+    public void refreshCatalog() {
+        // One snapshot for the rows and the sequence, so the reload is exactly as of that sequence
+        TransactionTemplate snapshotRead = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshotRead.setReadOnly(true);
+        snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        CatalogChangedEvent reload = snapshotRead.execute(status -> {
+            long sequence = productRepository.findHighestChangeSeq();
+            List<Product> rows = productRepository.findAll();
+            Map<Long, List<ProductVariant>> variants = productVariantRepository.findAllByProduct().stream()
+                    .collect(Collectors.groupingBy(variant -> variant.getProduct().getId()));
+            Map<ProductVariant.Key, Integer> allotted = allottedStock();
+            List<ProductResponse> products = rows.stream()
+                    .map(product -> mapToProductResponse(product, variants.getOrDefault(product.getId(), List.of()), allotted))
+                    .collect(Collectors.toList());
+            return CatalogChangedEvent.reload(products, sequence);
+        });
+        eventPublisher.publishEvent(reload);
+    }
+
+    // Suggestion ranking only needs to be roughly current, so it is refreshed alongside the catalog
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.cache.refresh-interval-ms:300000}",
+            fixedDelayString = "${catalog.cache.refresh-interval-ms:300000}")
+    public void refreshSalesRanking() {
+        Map<Long, Long> unitsSold = new HashMap<>();
+        for (OrderItemRepository.UnitsSoldView view : orderItemRepository.findUnitsSoldSince(
+                LocalDateTime.now().minusDays(salesWindowDays))) {
+            unitsSold.put(view.getProductId(), view.getUnitsSold());
+        }
+        productSuggestIndex.updateUnitsSold(unitsSold);
+    }
+
     public List<ProductResponse> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+        if (!catalogCache.isLoaded()) {
+            refreshCatalog();
+        }
+        return catalogCache.getAll();
+    }
+
+    public CatalogCache.EncodedBody getAllProductsEncoded() {
+        if (!catalogCache.isLoaded()) {
+            refreshCatalog();
+        }
+        return catalogCache.getAllEncoded();
+    }
+
+    public CatalogCache.EncodedBody getProductsByCategoryEncoded(String category) {
+        if (!catalogCache.isLoaded()) {
+            refreshCatalog();
+        }
+        return catalogCache.getByCategoryEncoded(category);
+    }
+
+    public List<ProductResponse> getProductsByCategory(String category) {
+        if (!catalogCache.isLoaded()) {
+            refreshCatalog();
+        }
+        return catalogCache.getByCategory(category);
+    }
+
+    public ProductSearchResponse searchProducts(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        if (!catalogCache.isLoaded()) {
+            refreshCatalog();
+        }
+        return productSearchIndex.search(query, Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    public ProductSuggestResponse suggestProducts(String query, int limit) {
+        if (!catalogCache.isLoaded()) {
+            refreshCatalog();
+        }
+        return productSuggestIndex.suggest(query, Math.max(1, Math.min(limit, ProductSuggestIndex.MAX_SUGGESTIONS)));
+    }
+
+    public ProductFacetsResponse getProductFacets(ProductPageRequest request) {
+        if (!catalogCache.isLoaded()) {
+            refreshCatalog();
+        }
+        String category = request.getCategory() == null || request.getCategory().isBlank() ? null : request.getCategory();
+        String size = request.getSize() == null || request.getSize().isBlank() ? null : request.getSize().trim();
+        return productFacetIndex.facets(category, request.getMinPrice(), request.getMaxPrice(), size);
+    }
+
+    public ProductPageResponse getProductPage(ProductPageRequest request) {
+        ProductPageRequest.Sort sort = ProductPageRequest.Sort.fromValue(request.getSort());
+        if (sort == null) {
+            throw new BadRequestException("Unsupported sort: " + request.getSort());
+        }
+        int pageSize = request.getLimit() == null ? 24 : Math.max(1, Math.min(request.getLimit(), MAX_PAGE_SIZE));
+        ProductCursor cursor = request.getCursor() == null || request.getCursor().isBlank()
+                ? null
+                : ProductCursor.decode(request.getCursor(), sort);
+
+        String category = request.getCategory() == null || request.getCategory().isBlank() ? null : request.getCategory();
+        String size = request.getSize() == null || request.getSize().isBlank() ? null : request.getSize().trim();
+        ProductRepositoryCustom.PageOrder order = switch (sort) {
+            case NEWEST -> ProductRepositoryCustom.PageOrder.NEWEST;
+            case PRICE_LOW -> ProductRepositoryCustom.PageOrder.PRICE_ASCENDING;
+            case PRICE_HIGH -> ProductRepositoryCustom.PageOrder.PRICE_DESCENDING;
+            case NAME -> ProductRepositoryCustom.PageOrder.NAME;
+        };
+        Object afterKey;
+        try {
+            afterKey = cursor == null ? null : switch (sort) {
+                case NEWEST -> LocalDateTime.parse(cursor.key());
+                case PRICE_LOW, PRICE_HIGH -> new BigDecimal(cursor.key());
+                case NAME -> cursor.key();
+            };
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        // One extra row tells us whether another page exists without a COUNT query
+        List<Product> rows = productRepository.findPage(category, request.getMinPrice(), request.getMaxPrice(), size,
+                order, afterKey, cursor == null ? null : cursor.id(), pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Product> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Product last = page.get(page.size() - 1);
+            String key = switch (sort) {
+                case NEWEST -> last.getCreatedAt().toString();
+                case PRICE_LOW, PRICE_HIGH -> last.getPrice().toPlainString();
+                case NAME -> last.getName();
+            };
+            nextCursor = new ProductCursor(sort, last.getId(), key).encode();
+        }
+
+        return new ProductPageResponse(mapToProductResponses(page), nextCursor, hasMore);
     }
 
     public ProductResponse getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        ProductResponse cached = catalogCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        Product product = productRepository.findWithVariantsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return mapToProductResponse(product);
+        ProductResponse response = mapToProductResponse(product, product.getVariants(), allottedStock(List.of(id)));
+        eventPublisher.publishEvent(CatalogChangedEvent.upsert(response, changeSeqOf(product)));
+        return response;
     }
 
+    @Transactional
     public ProductResponse createProduct(ProductCreateRequest request) {
         Product product = new Product();
         product.setName(request.getName());
@@ -37,15 +264,18 @@ public class ProductService {
         product.setPrice(request.getPrice());
         product.setCategory(request.getCategory());
         product.setImageUrl(request.getImageUrl());
-        product.setSizes(request.getSizes());
-        product.setQuantityInStock(request.getQuantityInStock());
+        applyVariants(product, resolveVariants(request));
 
+        product.setChangeSeq(nextChangeSeq());
         Product savedProduct = productRepository.save(product);
-        return mapToProductResponse(savedProduct);
+        ProductResponse response = mapToProductResponse(savedProduct, savedProduct.getVariants());
+        eventPublisher.publishEvent(CatalogChangedEvent.upsert(response, savedProduct.getChangeSeq()));
+        return response;
     }
 
+    @Transactional
     public ProductResponse updateProduct(Long id, ProductUpdateRequest request) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findWithVariantsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
         if (request.getName() != null) product.setName(request.getName());
@@ -53,21 +283,212 @@ public class ProductService {
         if (request.getPrice() != null) product.setPrice(request.getPrice());
         if (request.getCategory() != null) product.setCategory(request.getCategory());
         if (request.getImageUrl() != null) product.setImageUrl(request.getImageUrl());
-        if (request.getSizes() != null) product.setSizes(request.getSizes());
-        if (request.getQuantityInStock() != null) product.setQuantityInStock(request.getQuantityInStock());
+        if (request.getVariants() != null) {
+            applyVariants(product, request.getVariants());
+        } else if (request.getSizes() != null || request.getQuantityInStock() != null) {
+            List<String> sizes = request.getSizes() != null
+                    ? parseSizes(request.getSizes())
+                    : product.getVariants().stream().map(ProductVariant::getSize).toList();
+            int total = request.getQuantityInStock() != null
+                    ? request.getQuantityInStock()
+                    : product.getVariants().stream().mapToInt(ProductVariant::getStock).sum();
+            applyVariants(product, splitEvenly(sizes, total));
+        }
 
+        product.setChangeSeq(nextChangeSeq());
         Product updatedProduct = productRepository.save(product);
-        return mapToProductResponse(updatedProduct);
+        ProductResponse response = mapToProductResponse(updatedProduct, updatedProduct.getVariants(), allottedStock(List.of(id)));
+        eventPublisher.publishEvent(CatalogChangedEvent.upsert(response, updatedProduct.getChangeSeq()));
+        return response;
     }
 
+    @Transactional
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new ResourceNotFoundException("Product not found with id: " + id);
         }
+        long changeSeq = nextChangeSeq();
+        productTombstoneRepository.save(new ProductTombstone(id, changeSeq, LocalDateTime.now()));
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangedEvent.remove(id, changeSeq));
     }
 
-    private ProductResponse mapToProductResponse(Product product) {
+    /**
+     * Products written and deleted after {@code token}, in change order. Without a token the feed
+     * starts from the beginning, which returns the whole catalog across pages.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ProductChangesResponse getProductChanges(String token, int limit) {
+        boolean fromStart = token == null || token.isBlank();
+        ProductChangeToken since = fromStart ? new ProductChangeToken(0) : ProductChangeToken.decode(token);
+        // Deletes at or below the watermark have lost their tombstones; a fresh sync never needed them
+        long prunedThrough = changeFeedWatermarkRepository.findById(ChangeFeedWatermark.PRODUCTS)
+                .map(ChangeFeedWatermark::getPrunedThrough)
+                .orElse(0L);
+        if (!fromStart && since.sequence() < prunedThrough) {
+            return new ProductChangesResponse(List.of(), List.of(), null, false, true);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_CHANGES_PAGE_SIZE));
+
+        // Both lists are ordered by sequence; merge them and stop at the page size
+        List<Product> products = productRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since.sequence(), Limit.of(pageSize + 1));
+        List<ProductTombstone> tombstones = productTombstoneRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since.sequence(), Limit.of(pageSize + 1));
+        List<Product> changed = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        long lastSequence = since.sequence();
+        int p = 0;
+        int t = 0;
+        while (changed.size() + removed.size() < pageSize && (p < products.size() || t < tombstones.size())) {
+            if (t >= tombstones.size() || (p < products.size() && products.get(p).getChangeSeq() < tombstones.get(t).getChangeSeq())) {
+                lastSequence = products.get(p).getChangeSeq();
+                changed.add(products.get(p++));
+            } else {
+                lastSequence = tombstones.get(t).getChangeSeq();
+                removed.add(tombstones.get(t++).getProductId());
+            }
+        }
+        boolean hasMore = p < products.size() || t < tombstones.size();
+
+        String nextToken = new ProductChangeToken(lastSequence).encode();
+        return new ProductChangesResponse(mapToProductResponses(changed), removed, nextToken, hasMore, false);
+    }
+
+    // The watermark is raised in the same transaction, so no token can skip past a pruned delete unnoticed
+    @Scheduled(fixedDelayString = "${catalog.changes.prune-interval-ms:3600000}")
+    @Transactional
+    public void pruneTombstones() {
+        Long prunedThrough = productTombstoneRepository.findHighestChangeSeqDeletedBefore(
+                LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        if (prunedThrough == null) {
+            return;
+        }
+        changeFeedWatermarkRepository.raise(ChangeFeedWatermark.PRODUCTS, prunedThrough);
+        productTombstoneRepository.deleteThroughChangeSeq(prunedThrough);
+    }
+
+    // Rows written before change sequences existed count as older than any sequenced write
+    private long changeSeqOf(Product product) {
+        return product.getChangeSeq() == null ? 0 : product.getChangeSeq();
+    }
+
+    private long nextChangeSeq() {
+        productRepository.lockChangeSequence();
+        return productRepository.nextChangeSeq();
+    }
+
+    // A create request gives either explicit variants or sizes with a total to split across them
+    List<ProductVariantRequest> resolveVariants(ProductCreateRequest request) {
+        if (request.getVariants() != null && !request.getVariants().isEmpty()) {
+            return request.getVariants();
+        } else if (request.getQuantityInStock() != null) {
+            return splitEvenly(parseSizes(request.getSizes()), request.getQuantityInStock());
+        }
+        throw new BadRequestException("Either variants or quantityInStock is required");
+    }
+
+    static Map<String, Integer> stockBySize(List<ProductVariantRequest> requested) {
+        Map<String, Integer> stockBySize = new LinkedHashMap<>();
+        for (ProductVariantRequest variant : requested) {
+            if (stockBySize.put(variant.getSize().trim(), variant.getStock()) != null) {
+                throw new BadRequestException("Duplicate size: " + variant.getSize().trim());
+            }
+        }
+        if (stockBySize.isEmpty()) {
+            throw new BadRequestException("A product needs at least one size");
+        }
+        return stockBySize;
+    }
+
+    // Updates variants in place by size so unchanged rows keep their ids; sizes left out are removed
+    private void applyVariants(Product product, List<ProductVariantRequest> requested) {
+        Map<String, Integer> stockBySize = stockBySize(requested);
+
+        product.getVariants().removeIf(variant -> !stockBySize.containsKey(variant.getSize()));
+        for (ProductVariant variant : product.getVariants()) {
+            variant.setStock(stockBySize.remove(variant.getSize()));
+        }
+        stockBySize.forEach((size, stock) -> {
+            ProductVariant variant = new ProductVariant();
+            variant.setProduct(product);
+            variant.setSize(size);
+            variant.setStock(stock);
+            product.getVariants().add(variant);
+        });
+    }
+
+    // Accepts the JSON array the admin form sends and falls back to a comma separated list
+    private List<String> parseSizes(String sizes) {
+        if (sizes == null || sizes.isBlank()) {
+            return List.of(ProductVariant.ONE_SIZE);
+        }
+        List<String> parsed;
+        try {
+            parsed = sizes.trim().startsWith("[")
+                    ? objectMapper.readValue(sizes, new TypeReference<List<String>>() {
+                    })
+                    : Arrays.asList(sizes.split(","));
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Sizes must be a JSON array of strings");
+        }
+        List<String> distinct = parsed.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(size -> !size.isEmpty())
+                .distinct()
+                .toList();
+        return distinct.isEmpty() ? List.of(ProductVariant.ONE_SIZE) : distinct;
+    }
+
+    // Earlier sizes take the remainder, matching how existing rows were migrated
+    private List<ProductVariantRequest> splitEvenly(List<String> sizes, int total) {
+        List<ProductVariantRequest> variants = new ArrayList<>(sizes.size());
+        for (int i = 0; i < sizes.size(); i++) {
+            ProductVariantRequest variant = new ProductVariantRequest();
+            variant.setSize(sizes.get(i));
+            variant.setStock(total / sizes.size() + (i < total % sizes.size() ? 1 : 0));
+            variants.add(variant);
+        }
+        return variants;
+    }
+
+    // Variants for a whole page come from one query
+    private List<ProductResponse> mapToProductResponses(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+        Map<Long, List<ProductVariant>> variants = productVariantRepository.findByProductIds(productIds).stream()
+                .collect(Collectors.groupingBy(variant -> variant.getProduct().getId()));
+        Map<ProductVariant.Key, Integer> allotted = allottedStock(productIds);
+        return products.stream()
+                .map(product -> mapToProductResponse(product, variants.getOrDefault(product.getId(), List.of()), allotted))
+                .collect(Collectors.toList());
+    }
+
+    // Units of hot products that nodes have taken off the variant rows and not sold yet, which are
+    // still for sale. Lags sales by up to one hot stock flush interval
+    Map<ProductVariant.Key, Integer> allottedStock() {
+        return toAllottedStock(allotmentRepository.sumAllotted());
+    }
+
+    private Map<ProductVariant.Key, Integer> allottedStock(Collection<Long> productIds) {
+        return toAllottedStock(allotmentRepository.sumAllottedFor(productIds));
+    }
+
+    private static Map<ProductVariant.Key, Integer> toAllottedStock(List<HotStockAllotmentRepository.AllottedView> rows) {
+        Map<ProductVariant.Key, Integer> allotted = new HashMap<>();
+        for (HotStockAllotmentRepository.AllottedView row : rows) {
+            allotted.put(new ProductVariant.Key(row.getProductId(), row.getSize()), row.getQuantity().intValue());
+        }
+        return allotted;
+    }
+
+    ProductResponse mapToProductResponse(Product product, List<ProductVariant> variants) {
+        return mapToProductResponse(product, variants, Map.of());
+    }
+
+    // allotted: units of hot products held by nodes, added to the row stock of the same variant
+    ProductResponse mapToProductResponse(Product product, List<ProductVariant> variants, Map<ProductVariant.Key, Integer> allotted) {
         ProductResponse response = new ProductResponse();
         response.setId(product.getId());
         response.setName(product.getName());
@@ -75,10 +496,24 @@ public class ProductService {
         response.setPrice(product.getPrice());
         response.setCategory(product.getCategory());
         response.setImageUrl(product.getImageUrl());
-        response.setSizes(product.getSizes());
-        response.setQuantityInStock(product.getQuantityInStock());
+        List<ProductVariantResponse> variantResponses = variants.stream()
+                .map(variant -> new ProductVariantResponse(variant.getSize(), variant.getStock()
+                        + allotted.getOrDefault(new ProductVariant.Key(product.getId(), variant.getSize()), 0)))
+                .toList();
+        response.setVariants(variantResponses);
+        response.setSizes(toSizesJson(variantResponses));
+        response.setQuantityInStock(variantResponses.stream().mapToInt(ProductVariantResponse::getStock).sum());
         response.setCreatedAt(product.getCreatedAt());
         response.setUpdatedAt(product.getUpdatedAt());
         return response;
     }
+
+    // The storefront still reads sizes as a JSON array string
+    private String toSizesJson(List<ProductVariantResponse> variants) {
+        try {
+            return objectMapper.writeValueAsString(variants.stream().map(ProductVariantResponse::getSize).toList());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
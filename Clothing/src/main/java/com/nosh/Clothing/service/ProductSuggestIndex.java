@@ -0,0 +1,266 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.dto.response.ProductResponse;
+import com.nosh.Clothing.dto.response.ProductSuggestResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Typeahead over product names and categories, served from sorted key arrays with binary search.
+ * Every word start of a product name is a key, so "hoo" finds "Classic Hoodie". A max segment tree
+ * over the key array picks the best sellers in a prefix range without scanning it, ties going to the
+ * newest product. Product writes are merged into the arrays instead of re-sorting the whole catalog.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public ProductSuggestResponse suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return new ProductSuggestResponse(List.of(), List.of());
+        }
+        return snapshot.lookup(prefix, limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        Snapshot current = snapshot;
+        if (event.fullReload()) {
+            Map<Long, ProductResponse> products = new HashMap<>();
+            event.upserted().forEach(product -> products.put(product.getId(), product));
+            snapshot = Snapshot.build(products, current.unitsSold());
+            return;
+        }
+
+        Map<Long, ProductResponse> products = new HashMap<>(current.products());
+        Set<Long> replaced = new HashSet<>(event.removed());
+        event.removed().forEach(products::remove);
+        for (ProductResponse product : event.upserted()) {
+            replaced.add(product.getId());
+            products.put(product.getId(), product);
+        }
+        snapshot = current.merge(products, replaced, event.upserted());
+    }
+
+    /**
+     * Replaces the sales figures used for ranking. Keys are product ids, values units sold recently.
+     */
+    public synchronized void updateUnitsSold(Map<Long, Long> unitsSold) {
+        Snapshot current = snapshot;
+        snapshot = Snapshot.of(current.keys(), current.ids(), current.products(), Map.copyOf(unitsSold));
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private record Key(String key, long id) {
+        static final Comparator<Key> ORDER = Comparator.comparing(Key::key).thenComparingLong(Key::id);
+    }
+
+    private record Category(String key, String name, long weight) {
+    }
+
+    // A slice [from, to] of the key array together with the position of its best entry
+    private record Range(int from, int to, int best) {
+    }
+
+    private record Snapshot(String[] keys,
+                            long[] ids,
+                            long[] weights,
+                            int[] tree,
+                            Map<Long, ProductResponse> products,
+                            Map<Long, Long> unitsSold,
+                            List<Category> categories) {
+
+        static final Snapshot EMPTY = of(new String[0], new long[0], Map.of(), Map.of());
+
+        static Snapshot build(Map<Long, ProductResponse> products, Map<Long, Long> unitsSold) {
+            List<Key> entries = new ArrayList<>();
+            products.values().forEach(product -> addKeys(entries, product));
+            entries.sort(Key.ORDER);
+
+            String[] keys = new String[entries.size()];
+            long[] ids = new long[entries.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = entries.get(i).key();
+                ids[i] = entries.get(i).id();
+            }
+            return of(keys, ids, Map.copyOf(products), unitsSold);
+        }
+
+        Snapshot merge(Map<Long, ProductResponse> updated, Set<Long> replaced, Iterable<ProductResponse> added) {
+            List<Key> additions = new ArrayList<>();
+            added.forEach(product -> addKeys(additions, product));
+            additions.sort(Key.ORDER);
+
+            String[] mergedKeys = new String[keys.length + additions.size()];
+            long[] mergedIds = new long[mergedKeys.length];
+            int size = 0;
+            int a = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (replaced.contains(ids[i])) {
+                    continue;
+                }
+                while (a < additions.size() && compare(additions.get(a), keys[i], ids[i]) < 0) {
+                    mergedKeys[size] = additions.get(a).key();
+                    mergedIds[size++] = additions.get(a++).id();
+                }
+                mergedKeys[size] = keys[i];
+                mergedIds[size++] = ids[i];
+            }
+            for (; a < additions.size(); a++) {
+                mergedKeys[size] = additions.get(a).key();
+                mergedIds[size++] = additions.get(a).id();
+            }
+            return of(Arrays.copyOf(mergedKeys, size), Arrays.copyOf(mergedIds, size), Map.copyOf(updated), unitsSold);
+        }
+
+        static Snapshot of(String[] keys, long[] ids, Map<Long, ProductResponse> products, Map<Long, Long> unitsSold) {
+            long[] weights = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                weights[i] = unitsSold.getOrDefault(ids[i], 0L);
+            }
+
+            int[] tree = new int[2 * ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                tree[ids.length + i] = i;
+            }
+            Snapshot snapshot = new Snapshot(keys, ids, weights, tree, products, unitsSold, categories(products, unitsSold));
+            for (int node = ids.length - 1; node > 0; node--) {
+                tree[node] = snapshot.better(tree[2 * node], tree[2 * node + 1]);
+            }
+            return snapshot;
+        }
+
+        private static int compare(Key key, String otherKey, long otherId) {
+            int byKey = key.key().compareTo(otherKey);
+            return byKey != 0 ? byKey : Long.compare(key.id(), otherId);
+        }
+
+        // One key per word start: "classic hoodie" and "hoodie"
+        private static void addKeys(List<Key> entries, ProductResponse product) {
+            String name = normalize(product.getName());
+            if (name.isEmpty()) {
+                return;
+            }
+            entries.add(new Key(name, product.getId()));
+            for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+                entries.add(new Key(name.substring(i + 1), product.getId()));
+            }
+        }
+
+        private static List<Category> categories(Map<Long, ProductResponse> products, Map<Long, Long> unitsSold) {
+            Map<String, Long> weights = new TreeMap<>();
+            for (ProductResponse product : products.values()) {
+                if (product.getCategory() != null) {
+                    weights.merge(product.getCategory(), 1 + unitsSold.getOrDefault(product.getId(), 0L), Long::sum);
+                }
+            }
+            List<Category> categories = new ArrayList<>();
+            weights.forEach((name, weight) -> categories.add(new Category(normalize(name), name, weight)));
+            categories.sort(Comparator.comparingLong(Category::weight).reversed());
+            return List.copyOf(categories);
+        }
+
+        ProductSuggestResponse lookup(String prefix, int limit) {
+            List<ProductSuggestResponse.Suggestion> suggestions = new ArrayList<>(limit);
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE) - 1;
+            if (from <= to) {
+                // Pop the best entry of a range, then split the range around it: O(limit * log n)
+                PriorityQueue<Range> ranges = new PriorityQueue<>((x, y) -> x.best() == better(x.best(), y.best()) ? -1 : 1);
+                ranges.add(new Range(from, to, best(from, to)));
+                Set<Long> seen = new HashSet<>();
+                while (!ranges.isEmpty() && suggestions.size() < limit) {
+                    Range range = ranges.poll();
+                    if (seen.add(ids[range.best()])) {
+                        ProductResponse product = products.get(ids[range.best()]);
+                        suggestions.add(new ProductSuggestResponse.Suggestion(product.getId(), product.getName(), product.getCategory()));
+                    }
+                    if (range.from() < range.best()) {
+                        ranges.add(new Range(range.from(), range.best() - 1, best(range.from(), range.best() - 1)));
+                    }
+                    if (range.best() < range.to()) {
+                        ranges.add(new Range(range.best() + 1, range.to(), best(range.best() + 1, range.to())));
+                    }
+                }
+            }
+
+            List<String> matchingCategories = new ArrayList<>();
+            for (Category category : categories) {
+                if (matchingCategories.size() < limit && category.key().startsWith(prefix)) {
+                    matchingCategories.add(category.name());
+                }
+            }
+            return new ProductSuggestResponse(suggestions, matchingCategories);
+        }
+
+        private int better(int i, int j) {
+            if (weights[i] != weights[j]) {
+                return weights[i] > weights[j] ? i : j;
+            }
+            return ids[i] >= ids[j] ? i : j;
+        }
+
+        // Best entry position in [from, to], iterative bottom-up segment tree query
+        private int best(int from, int to) {
+            int result = from;
+            for (int l = from + ids.length, r = to + ids.length + 1; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    result = better(result, tree[l++]);
+                }
+                if ((r & 1) == 1) {
+                    result = better(result, tree[--r]);
+                }
+            }
+            return result;
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
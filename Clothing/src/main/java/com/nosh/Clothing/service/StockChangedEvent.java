@@ -0,0 +1,13 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.model.ProductVariant;
+
+import java.util.Map;
+
+/**
+ * Published by {@link StockHoldService} when orders and stock holds move stock; listeners receive it
+ * once the move commits. Deltas are keyed by variant, negative when units leave the shelf and
+ * positive when released holds return them, so listeners can apply them in any order.
+ */
+public record StockChangedEvent(Map<ProductVariant.Key, Integer> deltas) {
+}
@@ -0,0 +1,264 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.dto.request.OrderCreateRequest;
+import com.nosh.Clothing.dto.request.StockHoldRequest;
+import com.nosh.Clothing.dto.response.StockHoldResponse;
+import com.nosh.Clothing.exception.BadRequestException;
+import com.nosh.Clothing.exception.ResourceNotFoundException;
+import com.nosh.Clothing.model.Product;
+import com.nosh.Clothing.model.ProductVariant;
+import com.nosh.Clothing.model.StockHold;
+import com.nosh.Clothing.model.StockHoldItem;
+import com.nosh.Clothing.model.User;
+import com.nosh.Clothing.repository.ProductRepository;
+import com.nosh.Clothing.repository.ProductVariantRepository;
+import com.nosh.Clothing.repository.StockHoldRepository;
+import com.nosh.Clothing.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived stock reservations for checkout. Placing a hold takes the stock straight away with the
+ * same guarded decrement checkout uses, so a customer who holds can always pay. Placing the order
+ * then only converts the hold and never touches the contended variant rows again. Holds that are
+ * not converted in time are released by {@link #sweepExpiredHolds()}.
+ */
+@Service
+public class StockHoldService {
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HotStockService hotStockService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${checkout.holds.ttl-minutes:10}")
+    private int ttlMinutes;
+
+    @Value("${checkout.holds.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    // Refreshed by each sweep, so it lags by at most one sweep interval
+    private final AtomicLong activeHolds = new AtomicLong();
+    private final Counter placedHolds;
+    private final Counter convertedHolds;
+    private final Counter releasedHolds;
+    private final Counter expiredHolds;
+
+    public StockHoldService(MeterRegistry meterRegistry) {
+        Gauge.builder("stock.holds.active", activeHolds, AtomicLong::get).register(meterRegistry);
+        this.placedHolds = Counter.builder("stock.holds").tag("event", "placed").register(meterRegistry);
+        this.convertedHolds = Counter.builder("stock.holds").tag("event", "converted").register(meterRegistry);
+        this.releasedHolds = Counter.builder("stock.holds").tag("event", "released").register(meterRegistry);
+        this.expiredHolds = Counter.builder("stock.holds").tag("event", "expired").register(meterRegistry);
+    }
+
+    // Lines for the same product and size are merged, keyed in the order variant rows are locked in
+    public static SortedMap<ProductVariant.Key, Integer> quantitiesByVariant(List<OrderCreateRequest.OrderItemRequest> items) {
+        SortedMap<ProductVariant.Key, Integer> quantities = new TreeMap<>();
+        for (OrderCreateRequest.OrderItemRequest item : items) {
+            quantities.merge(new ProductVariant.Key(item.getProductId(), item.getSize().trim()), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /**
+     * Takes stock with one guarded UPDATE per size, sent as a single JDBC batch in (product, size)
+     * order so two callers touching the same variants lock rows in the same sequence. Variants of hot
+     * products are taken from {@link HotStockService} instead and never lock their row here. Fails the
+     * surrounding transaction on the first short or unknown variant.
+     */
+    @Transactional
+    public void takeStock(SortedMap<ProductVariant.Key, Integer> quantitiesByVariant) {
+        takeStock(quantitiesByVariant, false);
+    }
+
+    private void takeStock(SortedMap<ProductVariant.Key, Integer> quantitiesByVariant, boolean forHold) {
+        SortedMap<ProductVariant.Key, Integer> hot = new TreeMap<>();
+        SortedMap<ProductVariant.Key, Integer> fromRows = new TreeMap<>();
+        quantitiesByVariant.forEach((variant, quantity) ->
+                (hotStockService.isHot(variant.productId()) ? hot : fromRows).put(variant, quantity));
+
+        if (!hot.isEmpty()) {
+            ProductVariant.Key shortVariant = forHold ? hotStockService.takeStockForHold(hot) : hotStockService.takeStock(hot);
+            if (shortVariant != null) {
+                throw shortage(shortVariant);
+            }
+        }
+        if (!fromRows.isEmpty()) {
+            int[] updated = productVariantRepository.decrementStock(fromRows);
+            int index = 0;
+            for (ProductVariant.Key variant : fromRows.keySet()) {
+                if (updated[index++] == 0) {
+                    throw shortage(variant);
+                }
+            }
+        }
+        publishStockChange(quantitiesByVariant, -1);
+    }
+
+    // A customer has at most one hold; placing a new one gives back what the previous one held
+    @Transactional
+    public StockHoldResponse placeHold(StockHoldRequest request) {
+        User user = currentUser();
+        release(stockHoldRepository.findByUserIdForUpdate(user.getId()));
+
+        SortedMap<ProductVariant.Key, Integer> quantities = quantitiesByVariant(request.getItems());
+        takeStock(quantities, true);
+
+        StockHold hold = new StockHold();
+        hold.setUser(user);
+        hold.setExpiresAt(LocalDateTime.now().plusMinutes(ttlMinutes));
+        quantities.forEach((variant, quantity) -> {
+            StockHoldItem item = new StockHoldItem();
+            item.setHold(hold);
+            item.setProductId(variant.productId());
+            item.setSize(variant.size());
+            item.setQuantity(quantity);
+            hold.getItems().add(item);
+        });
+        StockHold savedHold = stockHoldRepository.save(hold);
+        placedHolds.increment();
+        return mapToStockHoldResponse(savedHold);
+    }
+
+    @Transactional
+    public void releaseHold(UUID holdId) {
+        User user = currentUser();
+        StockHold hold = stockHoldRepository.findByIdForUpdate(holdId)
+                .filter(found -> found.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Stock hold not found with id: " + holdId));
+        release(List.of(hold));
+    }
+
+    /**
+     * Turns a live hold into the stock for an order. The hold must belong to {@code user} and cover
+     * exactly {@code quantitiesByVariant}; it is deleted when the surrounding transaction commits.
+     */
+    @Transactional
+    public void convertHold(UUID holdId, User user, Map<ProductVariant.Key, Integer> quantitiesByVariant) {
+        StockHold hold = stockHoldRepository.findByIdForUpdate(holdId)
+                .filter(found -> found.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new BadRequestException("Stock hold has expired, please check out again"));
+        if (hold.getExpiresAt().isBefore(LocalDateTime.now())) {
+            // Left for the sweeper, which puts the stock back
+            throw new BadRequestException("Stock hold has expired, please check out again");
+        }
+        Map<ProductVariant.Key, Integer> held = new HashMap<>();
+        for (StockHoldItem item : hold.getItems()) {
+            held.put(new ProductVariant.Key(item.getProductId(), item.getSize()), item.getQuantity());
+        }
+        if (!held.equals(quantitiesByVariant)) {
+            throw new BadRequestException("The cart has changed since the stock hold was placed");
+        }
+        stockHoldRepository.delete(hold);
+        convertedHolds.increment();
+    }
+
+    // Batches until a short one; every batch is its own transaction so locks are held briefly
+    @Scheduled(initialDelayString = "${checkout.holds.sweep-interval-ms:15000}",
+            fixedDelayString = "${checkout.holds.sweep-interval-ms:15000}")
+    public void sweepExpiredHolds() {
+        int swept;
+        do {
+            swept = transactionTemplate.execute(status -> sweepBatch());
+        } while (swept >= sweepBatchSize);
+        activeHolds.set(stockHoldRepository.countByExpiresAtAfter(LocalDateTime.now()));
+    }
+
+    private int sweepBatch() {
+        List<StockHoldRepository.ReleasedItem> items = stockHoldRepository.deleteExpired(LocalDateTime.now(), sweepBatchSize);
+        SortedMap<ProductVariant.Key, Integer> quantities = new TreeMap<>();
+        Set<UUID> holds = new HashSet<>();
+        for (StockHoldRepository.ReleasedItem item : items) {
+            quantities.merge(item.variant(), item.quantity(), Integer::sum);
+            holds.add(item.holdId());
+        }
+        if (!quantities.isEmpty()) {
+            productVariantRepository.incrementStock(quantities);
+            publishStockChange(quantities, 1);
+        }
+        expiredHolds.increment(holds.size());
+        return holds.size();
+    }
+
+    private void release(List<StockHold> holds) {
+        if (holds.isEmpty()) {
+            return;
+        }
+        SortedMap<ProductVariant.Key, Integer> quantities = new TreeMap<>();
+        for (StockHold hold : holds) {
+            for (StockHoldItem item : hold.getItems()) {
+                quantities.merge(new ProductVariant.Key(item.getProductId(), item.getSize()), item.getQuantity(), Integer::sum);
+            }
+        }
+        productVariantRepository.incrementStock(quantities);
+        publishStockChange(quantities, 1);
+        stockHoldRepository.deleteAll(holds);
+        releasedHolds.increment(holds.size());
+    }
+
+    private BadRequestException shortage(ProductVariant.Key variant) {
+        Product product = productRepository.findById(variant.productId())
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + variant.productId()));
+        if (!productVariantRepository.existsByProductIdAndSize(variant.productId(), variant.size())) {
+            return new BadRequestException("Size " + variant.size() + " is not available for product: " + product.getName());
+        }
+        return new BadRequestException("Insufficient stock for product: " + product.getName() + " in size " + variant.size());
+    }
+
+    // Delivered to the in-memory catalog views only once the surrounding transaction commits
+    private void publishStockChange(Map<ProductVariant.Key, Integer> quantities, int sign) {
+        Map<ProductVariant.Key, Integer> deltas = new HashMap<>();
+        quantities.forEach((variant, quantity) -> deltas.put(variant, sign * quantity));
+        eventPublisher.publishEvent(new StockChangedEvent(deltas));
+    }
+
+    private User currentUser() {
+        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+
+    private StockHoldResponse mapToStockHoldResponse(StockHold hold) {
+        List<StockHoldResponse.Item> items = hold.getItems().stream()
+                .map(item -> new StockHoldResponse.Item(item.getProductId(), item.getSize(), item.getQuantity()))
+                .toList();
+        return new StockHoldResponse(hold.getId(), hold.getExpiresAt(), items);
+    }
+}
@@ -0,0 +1,125 @@
+package com.nosh.Clothing.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free unit counter for one hot variant, split into stripes so concurrent buyers mostly
+ * compare-and-swap different cache lines. Each stripe holds part of the units this node has
+ * allotted; a buyer takes from its own stripe and only walks the others when that one is short.
+ * {@link #close()} drains every stripe and marks it closed, after which nothing can be added.
+ *
+ * <p>Only {@link #tryTake} and {@link #available} are lock-free. Everything that adds units,
+ * {@link #tryTakeAcrossStripes} included since it may put units back, must run under the monitor
+ * that also guards {@link #close}, or units could be added to a stripe that was already drained.
+ */
+final class StripedStock {
+
+    // Stripes sit 16 longs (128 bytes) apart so neighbours never share a cache line, prefetch pairs included
+    private static final int PAD = 16;
+    private static final long CLOSED = -1;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    StripedStock(int stripes) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PAD);
+    }
+
+    /**
+     * Takes {@code quantity} units from a single stripe, starting with the calling thread's own.
+     */
+    boolean tryTake(int quantity) {
+        int home = home();
+        for (int i = 0; i < stripes; i++) {
+            int cell = ((home + i) % stripes) * PAD;
+            long units = cells.get(cell);
+            while (units >= quantity) {
+                if (cells.compareAndSet(cell, units, units - quantity)) {
+                    return true;
+                }
+                units = cells.get(cell);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gathers {@code quantity} units from as many stripes as it takes, for orders bigger than any one
+     * stripe. Puts back what it gathered if the total falls short.
+     */
+    boolean tryTakeAcrossStripes(int quantity) {
+        long needed = quantity;
+        long[] gathered = new long[stripes];
+        for (int stripe = 0; stripe < stripes && needed > 0; stripe++) {
+            int cell = stripe * PAD;
+            long units = cells.get(cell);
+            while (units > 0) {
+                long take = Math.min(units, needed);
+                if (cells.compareAndSet(cell, units, units - take)) {
+                    gathered[stripe] = take;
+                    needed -= take;
+                    break;
+                }
+                units = cells.get(cell);
+            }
+        }
+        if (needed == 0) {
+            return true;
+        }
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (gathered[stripe] > 0) {
+                add(stripe, gathered[stripe]);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds units spread evenly over the stripes. Returns false, adding nothing, once closed.
+     */
+    boolean give(long units) {
+        if (isClosed()) {
+            return false;
+        }
+        long share = units / stripes;
+        long rest = units % stripes;
+        int home = home();
+        for (int i = 0; i < stripes; i++) {
+            long portion = share + (i < rest ? 1 : 0);
+            if (portion > 0) {
+                add((home + i) % stripes, portion);
+            }
+        }
+        return true;
+    }
+
+    long available() {
+        long total = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            total += Math.max(cells.get(stripe * PAD), 0);
+        }
+        return total;
+    }
+
+    boolean isClosed() {
+        return cells.get(0) == CLOSED;
+    }
+
+    // Closes every stripe and returns the units they held
+    long close() {
+        long drained = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            drained += Math.max(cells.getAndSet(stripe * PAD, CLOSED), 0);
+        }
+        return drained;
+    }
+
+    private void add(int stripe, long units) {
+        cells.getAndAdd(stripe * PAD, units);
+    }
+
+    private int home() {
+        return (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 33) % stripes;
+    }
+}
@@ -0,0 +1,95 @@
+package com.nosh.Clothing.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns product text into index terms: lower-cased alphanumeric tokens, stop words dropped,
+ * single-letter prefixes joined to the next word ("t-shirt" becomes "tshirt") and a light
+ * English stemmer tuned for clothing plurals. Every token keeps its offsets in the source text.
+ */
+final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "with");
+
+    record Token(String term, int start, int end) {
+    }
+
+    private TextAnalyzer() {
+    }
+
+    static List<Token> analyze(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (start == i) {
+                break;
+            }
+            String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+
+            // "t-shirt", "v-neck": glue a lone letter onto the following word
+            if (word.length() == 1 && Character.isLetter(word.charAt(0))
+                    && i + 1 < length && text.charAt(i) == '-' && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                int next = i + 1;
+                while (next < length && Character.isLetterOrDigit(text.charAt(next))) {
+                    next++;
+                }
+                word = word + text.substring(i + 1, next).toLowerCase(Locale.ROOT);
+                i = next;
+            }
+
+            if (!STOP_WORDS.contains(word)) {
+                tokens.add(new Token(stem(word), start, i));
+            }
+        }
+        return tokens;
+    }
+
+    static List<String> terms(String text) {
+        return analyze(text).stream().map(Token::term).toList();
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 3 || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+
+        String stem = word;
+        if (stem.endsWith("ies")) {
+            stem = stem.substring(0, stem.length() - 3) + "i";
+        } else if (stem.endsWith("sses") || stem.endsWith("xes") || stem.endsWith("zes")
+                || stem.endsWith("ches") || stem.endsWith("shes")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us") && !stem.endsWith("is")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        // "hoodie"/"hoodies", "accessory"/"accessories" all meet at the same stem
+        if (stem.length() > 3 && stem.endsWith("ie")) {
+            stem = stem.substring(0, stem.length() - 1);
+        } else if (stem.length() > 3 && stem.endsWith("y")) {
+            stem = stem.substring(0, stem.length() - 1) + "i";
+        }
+
+        if (stem.length() > 5 && stem.endsWith("ing")) {
+            stem = stem.substring(0, stem.length() - 3);
+        }
+        return stem;
+    }
+}
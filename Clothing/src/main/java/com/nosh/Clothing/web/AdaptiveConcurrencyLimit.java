@@ -0,0 +1,83 @@
+package com.nosh.Clothing.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit for one class of routes that adapts to observed latency, AIMD style: every
+ * request that finishes within the target while the limit is at least half used raises the limit
+ * by one, and a request slower than the target cuts it by 10%. Cuts are spaced at least one target
+ * latency apart, so a burst of slow requests that were all admitted together counts as one signal
+ * rather than collapsing the limit to its floor.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos) {
+        this(initialLimit, minLimit, maxLimit, targetLatencyNanos, System::nanoTime);
+    }
+
+    // Takes the clock that spaces cuts, so tests can step through target windows
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos, LongSupplier nanoTime) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.nanoTime = nanoTime;
+        this.limit = initialLimit;
+        this.lastDecreaseNanos = nanoTime.getAsLong() - targetLatencyNanos;
+    }
+
+    // Fails without waiting once the current limit is reached
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        onSample(latencyNanos, inFlightBefore);
+    }
+
+    // For requests whose latency says nothing about load, such as long-running streamed downloads
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    private synchronized void onSample(long latencyNanos, int inFlightBefore) {
+        long now = nanoTime.getAsLong();
+        if (latencyNanos > targetLatencyNanos) {
+            if (now - lastDecreaseNanos >= targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+                lastDecreaseNanos = now;
+            }
+        } else if (inFlightBefore * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.nosh.Clothing.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosh.Clothing.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bulkheads in front of everything else, Spring Security included: each route class (checkout,
+ * browse, admin) gets its own {@link AdaptiveConcurrencyLimit}, so a spike in one cannot take every
+ * Tomcat thread and connection from the others. A request over its class's limit is turned away at
+ * once with 503 and Retry-After instead of queueing until it times out. Routes outside every class
+ * (auth, docs, actuator) are not limited.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final List<RouteClass> routeClasses;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Requests whose path starts with one of {@code pathPrefixes} share {@code limit}; the first
+     * matching class wins, so list more specific prefixes first.
+     */
+    public record RouteClass(String name, List<String> pathPrefixes, AdaptiveConcurrencyLimit limit, Counter rejected) {
+
+        public RouteClass(String name, List<String> pathPrefixes, AdaptiveConcurrencyLimit limit, MeterRegistry meterRegistry) {
+            this(name, pathPrefixes, limit,
+                    Counter.builder("http.admission.rejected").tag("route", name).register(meterRegistry));
+            Gauge.builder("http.admission.inflight", limit, AdaptiveConcurrencyLimit::getInFlight).tag("route", name).register(meterRegistry);
+            Gauge.builder("http.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit).tag("route", name).register(meterRegistry);
+        }
+
+        boolean matches(String path) {
+            for (String prefix : pathPrefixes) {
+                if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public AdmissionControlFilter(List<RouteClass> routeClasses, ObjectMapper objectMapper) {
+        this.routeClasses = List.copyOf(routeClasses);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteClass routeClass = classify(request.getRequestURI().substring(request.getContextPath().length()));
+        if (routeClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        AdaptiveConcurrencyLimit limit = routeClass.limit();
+        if (!limit.tryAcquire()) {
+            routeClass.rejected().increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // Streamed exports run for minutes by design; hold the slot until they finish but do not learn from them
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limit));
+            } else {
+                limit.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    // The limit is taken once per request, not again when an async request is dispatched back
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    private RouteClass classify(String path) {
+        for (RouteClass routeClass : routeClasses) {
+            if (routeClass.matches(path)) {
+                return routeClass;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "The server is busy, please try again shortly", LocalDateTime.now()));
+    }
+
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimit limit;
+
+        ReleaseOnCompletion(AdaptiveConcurrencyLimit limit) {
+            this.limit = limit;
+        }
+
+        // Also called after a timeout or error
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.releaseWithoutSample();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.nosh.Clothing.dto.request;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Item constraints must run on a whole order, the stock decrements trust the validated quantity.
+ */
+class OrderCreateRequestTests {
+
+	private static ValidatorFactory validatorFactory;
+	private static Validator validator;
+
+	@BeforeAll
+	static void createValidator() {
+		validatorFactory = Validation.buildDefaultValidatorFactory();
+		validator = validatorFactory.getValidator();
+	}
+
+	@AfterAll
+	static void closeValidator() {
+		validatorFactory.close();
+	}
+
+	@Test
+	void negativeQuantityIsRejected() {
+		Set<ConstraintViolation<OrderCreateRequest>> violations = validator.validate(order(item("M", -3)));
+
+		assertEquals(1, violations.size());
+		assertEquals("items[0].quantity", violations.iterator().next().getPropertyPath().toString());
+	}
+
+	@Test
+	void missingSizeIsRejected() {
+		Set<ConstraintViolation<OrderCreateRequest>> violations = validator.validate(order(item(null, 1)));
+
+		assertEquals(1, violations.size());
+		assertEquals("items[0].size", violations.iterator().next().getPropertyPath().toString());
+	}
+
+	@Test
+	void validOrderPasses() {
+		assertTrue(validator.validate(order(item("M", 2))).isEmpty());
+	}
+
+	private OrderCreateRequest order(OrderCreateRequest.OrderItemRequest item) {
+		OrderCreateRequest request = new OrderCreateRequest();
+		request.setShippingAddress("1 Test Street");
+		request.setItems(List.of(item));
+		return request;
+	}
+
+	private OrderCreateRequest.OrderItemRequest item(String size, int quantity) {
+		OrderCreateRequest.OrderItemRequest item = new OrderCreateRequest.OrderItemRequest();
+		item.setProductId(1L);
+		item.setSize(size);
+		item.setQuantity(quantity);
+		return item;
+	}
+}
@@ -0,0 +1,103 @@
+package com.nosh.Clothing.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link InMemoryRateLimitStore} on a hand-driven clock, so refills and Retry-After are exact.
+ */
+class InMemoryRateLimitStoreTests {
+
+	private static final Duration PERIOD = Duration.ofMinutes(1);
+	// Three tokens a minute, one every 20 seconds
+	private static final RateLimitStore.BucketSpec SPEC = new RateLimitStore.BucketSpec("login-ip", 3, PERIOD);
+	private static final long INTERVAL = PERIOD.toNanos() / 3;
+
+	private final AtomicLong clock = new AtomicLong(1_000);
+
+	@Test
+	void newBucketAllowsItsCapacityThenRefuses() {
+		InMemoryRateLimitStore store = store(100);
+
+		for (int remaining = 2; remaining >= 0; remaining--) {
+			RateLimitStore.Decision decision = store.tryConsume("10.0.0.1", SPEC);
+			assertTrue(decision.allowed());
+			assertEquals(3, decision.limit());
+			assertEquals(remaining, decision.remaining());
+		}
+		assertFalse(store.tryConsume("10.0.0.1", SPEC).allowed());
+		assertTrue(store.tryConsume("10.0.0.2", SPEC).allowed());
+	}
+
+	@Test
+	void refusalSaysWhenTheNextTokenArrives() {
+		InMemoryRateLimitStore store = store(100);
+		drain(store, "10.0.0.1");
+
+		RateLimitStore.Decision refused = store.tryConsume("10.0.0.1", SPEC);
+		assertFalse(refused.allowed());
+		assertEquals(0, refused.remaining());
+		assertEquals(INTERVAL, refused.retryAfterNanos());
+		assertEquals(PERIOD.toNanos(), refused.resetNanos());
+
+		clock.addAndGet(INTERVAL / 2);
+		assertEquals(INTERVAL / 2, store.tryConsume("10.0.0.1", SPEC).retryAfterNanos());
+	}
+
+	@Test
+	void bucketRefillsOneTokenPerInterval() {
+		InMemoryRateLimitStore store = store(100);
+		drain(store, "10.0.0.1");
+
+		clock.addAndGet(INTERVAL);
+		RateLimitStore.Decision decision = store.tryConsume("10.0.0.1", SPEC);
+		assertTrue(decision.allowed());
+		assertEquals(0, decision.remaining());
+		assertFalse(store.tryConsume("10.0.0.1", SPEC).allowed());
+
+		// A full period idle refills to capacity and no further
+		clock.addAndGet(PERIOD.toNanos() * 2);
+		assertEquals(2, store.tryConsume("10.0.0.1", SPEC).remaining());
+	}
+
+	@Test
+	void newClientsShareAnOverflowBucketOnceTheMapIsFull() {
+		RateLimitStore.BucketSpec single = new RateLimitStore.BucketSpec("login-ip", 1, PERIOD);
+		InMemoryRateLimitStore store = store(2);
+		assertTrue(store.tryConsume("10.0.0.1", single).allowed());
+		assertTrue(store.tryConsume("10.0.0.2", single).allowed());
+
+		assertTrue(store.tryConsume("10.0.0.3", single).allowed());
+		assertFalse(store.tryConsume("10.0.0.4", single).allowed());
+		assertEquals(3, store.size());
+
+		// Once the others have refilled they are evicted, and a new client gets its own bucket again
+		clock.addAndGet(PERIOD.toNanos());
+		assertTrue(store.tryConsume("10.0.0.5", single).allowed());
+		assertFalse(store.tryConsume("10.0.0.5", single).allowed());
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	void specNeedsACapacity() {
+		assertThrows(IllegalArgumentException.class, () -> new RateLimitStore.BucketSpec("login-ip", 0, PERIOD));
+		assertThrows(IllegalArgumentException.class, () -> new RateLimitStore.BucketSpec("login-ip", 5, Duration.ZERO));
+	}
+
+	private InMemoryRateLimitStore store(int maxBuckets) {
+		return new InMemoryRateLimitStore(maxBuckets, clock::get);
+	}
+
+	private void drain(InMemoryRateLimitStore store, String key) {
+		for (int i = 0; i < SPEC.capacity(); i++) {
+			assertTrue(store.tryConsume(key, SPEC).allowed());
+		}
+	}
+}
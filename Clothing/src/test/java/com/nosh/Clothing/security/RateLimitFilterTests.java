@@ -0,0 +1,123 @@
+package com.nosh.Clothing.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link RateLimitFilter} with an in-memory store on a frozen clock, checking what a client sees.
+ */
+class RateLimitFilterTests {
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+	private final AtomicLong clock = new AtomicLong(1_000);
+	private RateLimitFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		// 20 logins per IP, 2 per admin account and 3 public reads per IP, each per minute
+		filter = new RateLimitFilter(20, 2, 3, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(filter, "rateLimitStore", new InMemoryRateLimitStore(100, clock::get));
+		ReflectionTestUtils.setField(filter, "objectMapper", objectMapper);
+	}
+
+	@Test
+	void allowedRequestCarriesTheBucketHeaders() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = filter(get("/api/products"), chain);
+
+		assertNotNull(chain.getRequest());
+		assertEquals(200, response.getStatus());
+		assertEquals("3", response.getHeader("RateLimit-Limit"));
+		assertEquals("2", response.getHeader("RateLimit-Remaining"));
+		// One token back every 20 seconds
+		assertEquals("20", response.getHeader("RateLimit-Reset"));
+		assertNull(response.getHeader("Retry-After"));
+	}
+
+	@Test
+	void requestOverTheLimitGets429WithRetryAfter() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			filter(get("/api/products"), new MockFilterChain());
+		}
+
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = filter(get("/api/products/7"), chain);
+
+		assertNull(chain.getRequest());
+		assertEquals(429, response.getStatus());
+		assertEquals("0", response.getHeader("RateLimit-Remaining"));
+		assertEquals("60", response.getHeader("RateLimit-Reset"));
+		assertEquals("20", response.getHeader("Retry-After"));
+		assertEquals("application/json", response.getContentType());
+		JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+		assertEquals(429, body.path("status").asInt());
+		assertEquals("Too many requests, please try again later", body.path("message").asText());
+	}
+
+	@Test
+	void adminLoginsAreLimitedPerAccountAcrossIps() throws Exception {
+		for (int i = 1; i <= 2; i++) {
+			assertEquals(200, filter(adminLogin("10.0.0." + i, "{\"email\":\"Admin@Shop.test\"}"), new MockFilterChain()).getStatus());
+		}
+
+		MockHttpServletResponse response = filter(adminLogin("10.0.0.3", "{\"email\":\"admin@shop.test\"}"), new MockFilterChain());
+		assertEquals(429, response.getStatus());
+	}
+
+	@Test
+	void controllerStillReadsTheAdminLoginBody() throws Exception {
+		byte[] body = "{\"email\":\"admin@shop.test\",\"password\":\"secret\"}".getBytes(StandardCharsets.UTF_8);
+		MockHttpServletRequest request = adminLogin("10.0.0.1", new String(body, StandardCharsets.UTF_8));
+		MockFilterChain chain = new MockFilterChain();
+
+		filter(request, chain);
+
+		assertArrayEquals(body, chain.getRequest().getInputStream().readAllBytes());
+	}
+
+	@Test
+	void oversizedAdminLoginBodyIsRefusedUnread() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = filter(adminLogin("10.0.0.1", "{\"email\":\"" + "a".repeat(5_000) + "\"}"), chain);
+
+		assertNull(chain.getRequest());
+		assertEquals(413, response.getStatus());
+		assertEquals(413, objectMapper.readTree(response.getContentAsByteArray()).path("status").asInt());
+	}
+
+	private MockHttpServletResponse filter(MockHttpServletRequest request, MockFilterChain chain) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, chain);
+		return response;
+	}
+
+	private MockHttpServletRequest get(String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setRemoteAddr("10.0.0.1");
+		return request;
+	}
+
+	private MockHttpServletRequest adminLogin(String ip, String json) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/admin-login");
+		request.setRemoteAddr(ip);
+		request.setContentType("application/json");
+		request.setContent(json.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+}
@@ -0,0 +1,80 @@
+package com.nosh.Clothing.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.nosh.Clothing.dto.response.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Events arriving out of change-sequence order must never move the cache backwards.
+ */
+class CatalogCacheTests {
+
+	private final CatalogCache cache = new CatalogCache(new SimpleMeterRegistry(), new ContentVersions(),
+			JsonMapper.builder().findAndAddModules().build());
+
+	@Test
+	void reloadReadBeforeALocalWriteKeepsTheWrite() {
+		cache.onCatalogChanged(CatalogChangedEvent.reload(List.of(product(1L, "Tee"), product(2L, "Cap")), 10));
+
+		cache.onCatalogChanged(CatalogChangedEvent.upsert(product(1L, "Tee v2"), 12));
+		cache.onCatalogChanged(CatalogChangedEvent.remove(2L, 13));
+		// Read at sequence 11, published after both writes
+		cache.onCatalogChanged(CatalogChangedEvent.reload(List.of(product(1L, "Tee"), product(2L, "Cap")), 11));
+
+		assertEquals("Tee v2", cache.get(1L).getName());
+		assertNull(cache.get(2L));
+	}
+
+	@Test
+	void olderReloadIsDropped() {
+		cache.onCatalogChanged(CatalogChangedEvent.reload(List.of(product(1L, "Tee v2")), 20));
+		cache.onCatalogChanged(CatalogChangedEvent.reload(List.of(product(1L, "Tee"), product(2L, "Cap")), 15));
+
+		assertEquals("Tee v2", cache.get(1L).getName());
+		assertNull(cache.get(2L));
+	}
+
+	@Test
+	void staleReadThroughDoesNotResurrectADeletedProduct() {
+		cache.onCatalogChanged(CatalogChangedEvent.reload(List.of(product(1L, "Tee")), 10));
+		cache.onCatalogChanged(CatalogChangedEvent.remove(1L, 11));
+		cache.onCatalogChanged(CatalogChangedEvent.upsert(product(1L, "Tee"), 9));
+		assertNull(cache.get(1L));
+
+		// Deleted before the reload read, so the reload's absence already covers it
+		cache.onCatalogChanged(CatalogChangedEvent.reload(List.of(), 11));
+		cache.onCatalogChanged(CatalogChangedEvent.upsert(product(1L, "Tee"), 9));
+		assertNull(cache.get(1L));
+
+		// Created on another node after the reload
+		cache.onCatalogChanged(CatalogChangedEvent.upsert(product(3L, "Scarf"), 14));
+		assertEquals("Scarf", cache.get(3L).getName());
+	}
+
+	@Test
+	void singleProductsBeforeTheFirstReloadDoNotCountAsLoaded() {
+		cache.onCatalogChanged(CatalogChangedEvent.upsert(product(1L, "Tee"), 5));
+		assertFalse(cache.isLoaded());
+		assertEquals(1, cache.getAll().size());
+
+		cache.onCatalogChanged(CatalogChangedEvent.reload(List.of(product(1L, "Tee"), product(2L, "Cap")), 6));
+		assertTrue(cache.isLoaded());
+		assertEquals(2, cache.getAll().size());
+	}
+
+	private ProductResponse product(Long id, String name) {
+		ProductResponse product = new ProductResponse();
+		product.setId(id);
+		product.setName(name);
+		product.setCategory("Tops");
+		return product;
+	}
+}
@@ -0,0 +1,114 @@
+package com.nosh.Clothing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.nosh.Clothing.dto.response.ProductResponse;
+import com.nosh.Clothing.dto.response.ProductVariantResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the old /api/products path (map cached entities, serialize with Jackson, gzip) against
+ * writing the pre-encoded bytes from {@link CatalogCache}. Runs without a Spring context or database.
+ * Timing based, so it only runs with {@code -Pbenchmarks}.
+ */
+@Tag("benchmark")
+class CatalogResponseBenchmarkTests {
+
+	private static final int PRODUCTS = 2_000;
+	private static final long RUN_NANOS = 2_000_000_000L;
+
+	private final ObjectMapper objectMapper = JsonMapper.builder()
+			.findAndAddModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.build();
+
+	@Test
+	void preEncodedCatalogServesMoreRequestsPerSecond() throws Exception {
+		List<ProductResponse> products = sampleCatalog();
+		CatalogCache cache = new CatalogCache(new SimpleMeterRegistry(), new ContentVersions(), objectMapper);
+		cache.onCatalogChanged(CatalogChangedEvent.reload(products, 1));
+		ByteArrayOutputStream sink = new ByteArrayOutputStream(1 << 20);
+
+		double serializePerRequest = requestsPerSecond(() -> {
+			sink.reset();
+			objectMapper.writeValue(sink, cache.getAll());
+		});
+		double serializeAndGzipPerRequest = requestsPerSecond(() -> {
+			sink.reset();
+			try (OutputStream gzip = new GZIPOutputStream(sink)) {
+				objectMapper.writeValue(gzip, cache.getAll());
+			}
+		});
+		double preEncodedJson = requestsPerSecond(() -> {
+			sink.reset();
+			sink.write(cache.getAllEncoded().json());
+		});
+		double preEncodedGzip = requestsPerSecond(() -> {
+			sink.reset();
+			sink.write(cache.getAllEncoded().gzip());
+		});
+
+		assertTrue(preEncodedJson > serializePerRequest, () -> String.format(
+				"pre-encoded JSON %,.0f req/s, serialize per request %,.0f req/s", preEncodedJson, serializePerRequest));
+		assertTrue(preEncodedGzip > serializeAndGzipPerRequest, () -> String.format(
+				"pre-encoded gzip %,.0f req/s, serialize + gzip per request %,.0f req/s", preEncodedGzip, serializeAndGzipPerRequest));
+	}
+
+	private double requestsPerSecond(Request request) throws IOException {
+		// Warm up so the JIT has compiled both paths before timing
+		long warmUpEnd = System.nanoTime() + RUN_NANOS / 2;
+		while (System.nanoTime() < warmUpEnd) {
+			request.run();
+		}
+		long requests = 0;
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			request.run();
+			requests++;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < RUN_NANOS);
+		return requests * 1_000_000_000.0 / elapsed;
+	}
+
+	private List<ProductResponse> sampleCatalog() {
+		List<ProductResponse> products = new ArrayList<>(PRODUCTS);
+		LocalDateTime now = LocalDateTime.now();
+		for (long id = 1; id <= PRODUCTS; id++) {
+			ProductResponse product = new ProductResponse();
+			product.setId(id);
+			product.setName("Classic Cotton Tee " + id);
+			product.setDescription("Comfortable cotton t-shirt perfect for everyday wear");
+			product.setPrice(new BigDecimal("29.99"));
+			product.setCategory(id % 2 == 0 ? "T-Shirts" : "Jeans");
+			product.setImageUrl("https://example.com/products/" + id + ".jpg");
+			product.setSizes("[\"S\",\"M\",\"L\",\"XL\"]");
+			product.setVariants(List.of(new ProductVariantResponse("S", 5), new ProductVariantResponse("M", 5),
+					new ProductVariantResponse("L", 5), new ProductVariantResponse("XL", 5)));
+			product.setQuantityInStock(20);
+			product.setCreatedAt(now);
+			product.setUpdatedAt(now);
+			products.add(product);
+		}
+		return products;
+	}
+
+	@FunctionalInterface
+	private interface Request {
+		void run() throws IOException;
+	}
+}
@@ -0,0 +1,239 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.exception.ServiceUnavailableException;
+import com.nosh.Clothing.model.HotStockAllotment;
+import com.nosh.Clothing.model.ProductVariant;
+import com.nosh.Clothing.repository.HotStockAllotmentRepository;
+import com.nosh.Clothing.repository.OrderItemRepository;
+import com.nosh.Clothing.repository.ProductRepository;
+import com.nosh.Clothing.repository.ProductVariantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link HotStockService} against an in-memory stand-in for the variant row and the allotment
+ * ledger, so the selling, refill and reconcile paths run without a database.
+ */
+class HotStockServiceTests {
+
+	private static final String NODE_ID = "node-a";
+	private static final ProductVariant.Key VARIANT = new ProductVariant.Key(7L, "42");
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final ProductVariantRepository productVariantRepository = mock(ProductVariantRepository.class);
+	private final HotStockAllotmentRepository allotmentRepository = mock(HotStockAllotmentRepository.class);
+	private final OrderItemRepository orderItemRepository = mock(OrderItemRepository.class);
+	private final HotStockAllotter allotter = mock(HotStockAllotter.class);
+
+	// Units on the variant row, and units the ledger records as allotted to this node
+	private final AtomicInteger row = new AtomicInteger();
+	private final AtomicInteger ledger = new AtomicInteger();
+
+	private HotStockService service;
+
+	@BeforeEach
+	void setUp() {
+		when(allotter.allot(eq(NODE_ID), eq(VARIANT), anyInt())).thenAnswer(invocation -> {
+			int wanted = invocation.getArgument(2);
+			synchronized (row) {
+				int taken = Math.min(row.get(), wanted);
+				row.addAndGet(-taken);
+				ledger.addAndGet(taken);
+				return taken;
+			}
+		});
+		doAnswer(invocation -> {
+			int units = invocation.getArgument(2);
+			synchronized (row) {
+				ledger.addAndGet(-units);
+				row.addAndGet(units);
+			}
+			return null;
+		}).when(allotter).release(eq(NODE_ID), eq(VARIANT), anyInt());
+
+		when(allotmentRepository.recordHeld(eq(NODE_ID), eq(7L), eq("42"), anyInt())).thenAnswer(invocation -> {
+			ledger.addAndGet(-(int) invocation.getArgument(3));
+			return 1;
+		});
+
+		service = newService();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		ReflectionTestUtils.setField(service, "nodeEnabled", false);
+		service.returnAllotments();
+	}
+
+	@Test
+	void concurrentBuyersNeverTakeMoreThanTheRowHeld() throws Exception {
+		row.set(1_000);
+		int buyers = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(buyers);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger sold = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < buyers; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				while (service.takeStock(quantities(1)) == null) {
+					sold.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		assertEquals(0, row.get());
+		assertEquals(1_000, ledger.get());
+		assertEquals(1_000, sold.get() + service.available(VARIANT));
+	}
+
+	@Test
+	void rolledBackCheckoutPutsItsUnitsBack() {
+		row.set(100);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			assertNull(service.takeStock(quantities(3)));
+			assertEquals(47, service.available(VARIANT));
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertEquals(50, service.available(VARIANT));
+	}
+
+	@Test
+	void flushRecordsSalesAndHandsBackStockOnceTheProductIsNoLongerHot() {
+		row.set(100);
+		assertNull(service.takeStock(quantities(5)));
+		when(productRepository.findHotStockIds()).thenReturn(List.of());
+
+		service.flush();
+
+		// 5 sold plus the 45 handed back leave this node's allotment
+		verify(allotmentRepository).recordSold(eq(NODE_ID), eq(7L), eq("42"), eq(50), any());
+		verify(productVariantRepository).incrementStock(quantities(45));
+		assertEquals(0, service.available(VARIANT));
+	}
+
+	@Test
+	void reconcileReturnsWhatACrashedRunHeldLessLaterOrders() {
+		LocalDateTime lastFlush = LocalDateTime.now().minusMinutes(5);
+		HotStockAllotment left = new HotStockAllotment(1L, NODE_ID, 7L, "42", 40, lastFlush);
+		when(allotmentRepository.findByNodeId(NODE_ID)).thenReturn(List.of(left));
+		when(orderItemRepository.sumQuantityOrderedSince(7L, "42", lastFlush)).thenReturn(15L);
+
+		service.reconcile();
+
+		verify(productVariantRepository).incrementStock(quantities(25));
+		verify(allotmentRepository).deleteAll(List.of(left));
+	}
+
+	@Test
+	void startupFailsWithoutANodeId() {
+		ReflectionTestUtils.setField(service, "nodeId", "");
+
+		assertThrows(IllegalStateException.class, service::reconcile);
+	}
+
+	@Test
+	void refillThatDoesNotArriveInTimeFailsTheCheckoutAndReturnsWhatItTook() {
+		// Sorts before VARIANT, so it is taken first
+		ProductVariant.Key taken = new ProductVariant.Key(6L, "M");
+		when(allotter.allot(NODE_ID, taken, 50)).thenReturn(50);
+		CountDownLatch stalled = new CountDownLatch(1);
+		when(allotter.allot(eq(NODE_ID), eq(VARIANT), anyInt())).thenAnswer(invocation -> {
+			stalled.await();
+			return 0;
+		});
+		ReflectionTestUtils.setField(service, "refillTimeoutMs", 100L);
+		SortedMap<ProductVariant.Key, Integer> order = quantities(1);
+		order.put(taken, 2);
+
+		assertThrows(ServiceUnavailableException.class, () -> service.takeStock(order));
+		stalled.countDown();
+
+		assertEquals(50, service.available(taken));
+	}
+
+	@Test
+	void crashWithAnOpenHoldDoesNotHandTheHeldUnitsBackTwice() throws InterruptedException {
+		row.set(100);
+		assertNull(service.takeStockForHold(quantities(5)));
+		assertEquals(45, ledger.get());
+
+		// The node dies before its next flush; the hold outlives it and is later swept back onto the row
+		LocalDateTime lastFlush = LocalDateTime.now().minusSeconds(1);
+		when(allotmentRepository.findByNodeId(NODE_ID)).thenReturn(
+				List.of(new HotStockAllotment(1L, NODE_ID, 7L, "42", ledger.get(), lastFlush)));
+		when(orderItemRepository.sumQuantityOrderedSince(7L, "42", lastFlush)).thenReturn(0L);
+		HotStockService restarted = newService();
+		try {
+			restarted.reconcile();
+		} finally {
+			ReflectionTestUtils.setField(restarted, "nodeEnabled", false);
+			restarted.returnAllotments();
+		}
+
+		// 50 on the row, 45 returned now and the 5 the sweeper returns make the original 100
+		verify(productVariantRepository).incrementStock(quantities(45));
+	}
+
+	private HotStockService newService() {
+		HotStockService hotStockService = new HotStockService(mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 2);
+		ReflectionTestUtils.setField(hotStockService, "productRepository", productRepository);
+		ReflectionTestUtils.setField(hotStockService, "productVariantRepository", productVariantRepository);
+		ReflectionTestUtils.setField(hotStockService, "allotmentRepository", allotmentRepository);
+		ReflectionTestUtils.setField(hotStockService, "orderItemRepository", orderItemRepository);
+		ReflectionTestUtils.setField(hotStockService, "allotter", allotter);
+		ReflectionTestUtils.setField(hotStockService, "nodeEnabled", true);
+		ReflectionTestUtils.setField(hotStockService, "nodeId", NODE_ID);
+		ReflectionTestUtils.setField(hotStockService, "allotmentSize", 50);
+		ReflectionTestUtils.setField(hotStockService, "lowWater", 10);
+		ReflectionTestUtils.setField(hotStockService, "refillTimeoutMs", 5_000L);
+		ReflectionTestUtils.setField(hotStockService, "configuredStripes", 4);
+		return hotStockService;
+	}
+
+	private SortedMap<ProductVariant.Key, Integer> quantities(int units) {
+		SortedMap<ProductVariant.Key, Integer> quantities = new TreeMap<>();
+		quantities.put(VARIANT, units);
+		return quantities;
+	}
+}
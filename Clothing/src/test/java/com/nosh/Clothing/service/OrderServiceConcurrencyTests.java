@@ -0,0 +1,137 @@
+package com.nosh.Clothing.service;
+
+import com.nosh.Clothing.dto.request.OrderCreateRequest;
+import com.nosh.Clothing.exception.BadRequestException;
+import com.nosh.Clothing.model.Product;
+import com.nosh.Clothing.model.ProductVariant;
+import com.nosh.Clothing.model.User;
+import com.nosh.Clothing.repository.OrderRepository;
+import com.nosh.Clothing.repository.ProductRepository;
+import com.nosh.Clothing.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class OrderServiceConcurrencyTests {
+
+	private static final int BUYERS = 60;
+	private static final int UNITS_PER_ORDER = 2;
+	private static final int INITIAL_STOCK = 100;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User buyer;
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		buyer = new User();
+		buyer.setName("Load Test Buyer");
+		buyer.setEmail("buyer-" + UUID.randomUUID() + "@test.local");
+		buyer.setRole(User.Role.CUSTOMER);
+		buyer = userRepository.save(buyer);
+
+		product = new Product();
+		product.setName("Limited Drop Hoodie");
+		product.setPrice(new BigDecimal("49.99"));
+		product.setCategory("Hoodies");
+		ProductVariant variant = new ProductVariant();
+		variant.setProduct(product);
+		variant.setSize("M");
+		variant.setStock(INITIAL_STOCK);
+		product.getVariants().add(variant);
+		product = productRepository.save(product);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll(orderRepository.findByUserOrderByCreatedAtDesc(buyer));
+		productRepository.deleteById(product.getId());
+		userRepository.deleteById(buyer.getId());
+	}
+
+	@Test
+	void concurrentCheckoutsNeverOversell() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger placed = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < BUYERS; i++) {
+			futures.add(executor.submit(() -> {
+				SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+						buyer.getEmail(), null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+				try {
+					start.await();
+					orderService.createOrder(orderFor(product.getId()));
+					placed.incrementAndGet();
+				} catch (BadRequestException e) {
+					rejected.incrementAndGet();
+				} finally {
+					SecurityContextHolder.clearContext();
+				}
+				return null;
+			}));
+		}
+
+		long began = System.nanoTime();
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+		executor.shutdown();
+
+		int remaining = productRepository.findWithVariantsById(product.getId()).orElseThrow()
+				.getVariants().get(0).getStock();
+		System.out.printf("%d buyers: %d orders placed, %d rejected, %.1f orders/sec%n",
+				BUYERS, placed.get(), rejected.get(), placed.get() / seconds);
+
+		assertEquals(INITIAL_STOCK / UNITS_PER_ORDER, placed.get());
+		assertEquals(BUYERS - placed.get(), rejected.get());
+		assertEquals(0, remaining);
+		assertEquals(placed.get(), orderRepository.findByUserOrderByCreatedAtDesc(buyer).size());
+	}
+
+	private OrderCreateRequest orderFor(Long productId) {
+		OrderCreateRequest.OrderItemRequest item = new OrderCreateRequest.OrderItemRequest();
+		item.setProductId(productId);
+		item.setSize("M");
+		item.setQuantity(UNITS_PER_ORDER);
+
+		OrderCreateRequest request = new OrderCreateRequest();
+		request.setShippingAddress("1 Test Street");
+		request.setItems(List.of(item));
+		return request;
+	}
+}
@@ -0,0 +1,98 @@
+package com.nosh.Clothing.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link AdaptiveConcurrencyLimit} on a hand-driven clock, so every step of the AIMD loop is exact.
+ */
+class AdaptiveConcurrencyLimitTests {
+
+	private static final long TARGET = 100;
+	private static final long FAST = TARGET / 2;
+	private static final long SLOW = TARGET * 2;
+
+	private final AtomicLong clock = new AtomicLong(1_000);
+
+	@Test
+	void tryAcquireStopsAtTheLimit() {
+		AdaptiveConcurrencyLimit limit = limit(3, 1, 10);
+
+		assertTrue(limit.tryAcquire());
+		assertTrue(limit.tryAcquire());
+		assertTrue(limit.tryAcquire());
+		assertFalse(limit.tryAcquire());
+		assertEquals(3, limit.getInFlight());
+
+		limit.releaseWithoutSample();
+		assertTrue(limit.tryAcquire());
+		assertFalse(limit.tryAcquire());
+	}
+
+	@Test
+	void limitOnlyGrowsWhileAtLeastHalfOfItIsInUse() {
+		AdaptiveConcurrencyLimit limit = limit(10, 1, 20);
+
+		acquire(limit, 4);
+		limit.release(FAST);
+		assertEquals(10, limit.getLimit());
+
+		acquire(limit, 2);
+		limit.release(FAST);
+		assertEquals(11, limit.getLimit());
+	}
+
+	@Test
+	void slowRequestsCutAtMostOncePerTargetWindow() {
+		AdaptiveConcurrencyLimit limit = limit(10, 1, 20);
+		acquire(limit, 4);
+
+		limit.release(SLOW);
+		assertEquals(9, limit.getLimit());
+
+		// The rest of the burst that was admitted together
+		clock.addAndGet(TARGET - 1);
+		limit.release(SLOW);
+		limit.release(SLOW);
+		assertEquals(9, limit.getLimit());
+
+		clock.addAndGet(1);
+		limit.release(SLOW);
+		assertEquals(8, limit.getLimit());
+	}
+
+	@Test
+	void limitStaysWithinItsFloorAndCeiling() {
+		AdaptiveConcurrencyLimit floor = limit(2, 2, 4);
+		for (int i = 0; i < 5; i++) {
+			acquire(floor, 1);
+			clock.addAndGet(TARGET);
+			floor.release(SLOW);
+		}
+		assertEquals(2, floor.getLimit());
+
+		AdaptiveConcurrencyLimit ceiling = limit(4, 1, 4);
+		for (int i = 0; i < 5; i++) {
+			acquire(ceiling, 4);
+			for (int j = 0; j < 4; j++) {
+				ceiling.release(FAST);
+			}
+		}
+		assertEquals(4, ceiling.getLimit());
+	}
+
+	private AdaptiveConcurrencyLimit limit(int initial, int min, int max) {
+		return new AdaptiveConcurrencyLimit(initial, min, max, TARGET, clock::get);
+	}
+
+	private void acquire(AdaptiveConcurrencyLimit limit, int permits) {
+		for (int i = 0; i < permits; i++) {
+			assertTrue(limit.tryAcquire());
+		}
+	}
+}
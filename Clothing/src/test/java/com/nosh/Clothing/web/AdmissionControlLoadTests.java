@@ -0,0 +1,138 @@
+package com.nosh.Clothing.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Browse latency while checkout is saturated, with and without {@link AdmissionControlFilter}.
+ * A fixed thread pool with an unbounded queue stands in for Tomcat, and checkout handlers contend
+ * for a small semaphore standing in for the connection pool. Runs without a Spring context or database.
+ * Timing based, so it only runs with {@code -Pbenchmarks}.
+ */
+@Tag("benchmark")
+class AdmissionControlLoadTests {
+
+	private static final int SERVER_THREADS = 64;
+	private static final int CONNECTIONS = 8;
+	private static final int CHECKOUT_CLIENTS = 200;
+	private static final int BROWSE_CLIENTS = 4;
+	private static final long CHECKOUT_WORK_MILLIS = 20;
+	private static final long BROWSE_WORK_MILLIS = 2;
+	private static final long RUN_MILLIS = 2_000;
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+	@Test
+	void browseP99HoldsWhileCheckoutIsSaturated() throws Exception {
+		double baseline = browseP99Millis(null, 0);
+		double unprotected = browseP99Millis(null, CHECKOUT_CLIENTS);
+		// The first protected run pays for JIT and Jackson warm-up on the reject path
+		browseP99Millis(filter(), CHECKOUT_CLIENTS);
+		double protectedByLimits = browseP99Millis(filter(), CHECKOUT_CLIENTS);
+
+		assertTrue(protectedByLimits * 4 < unprotected, String.format(
+				"admission control should keep browse p99 far below the unprotected run: idle checkout %.1f ms, "
+						+ "saturated checkout without admission control %.1f ms, with %.1f ms",
+				baseline, unprotected, protectedByLimits));
+	}
+
+	private AdmissionControlFilter filter() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		return new AdmissionControlFilter(List.of(
+				new AdmissionControlFilter.RouteClass("checkout", List.of("/api/orders"),
+						new AdaptiveConcurrencyLimit(20, 2, 40, Duration.ofMillis(50).toNanos()), meterRegistry),
+				new AdmissionControlFilter.RouteClass("browse", List.of("/api/products"),
+						new AdaptiveConcurrencyLimit(75, 2, 150, Duration.ofMillis(50).toNanos()), meterRegistry)),
+				objectMapper);
+	}
+
+	private double browseP99Millis(AdmissionControlFilter filter, int checkoutClients) throws Exception {
+		ExecutorService server = Executors.newFixedThreadPool(SERVER_THREADS);
+		ExecutorService clients = Executors.newFixedThreadPool(checkoutClients + BROWSE_CLIENTS);
+		Semaphore connections = new Semaphore(CONNECTIONS, true);
+		AtomicBoolean running = new AtomicBoolean(true);
+		List<Long> browseNanos = Collections.synchronizedList(new ArrayList<>());
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < checkoutClients; i++) {
+			futures.add(clients.submit(() -> {
+				while (running.get()) {
+					int status = server.submit(() -> handle(filter, "/api/orders", () -> {
+						connections.acquire();
+						try {
+							Thread.sleep(CHECKOUT_WORK_MILLIS);
+						} finally {
+							connections.release();
+						}
+					})).get();
+					if (status == 503) {
+						// A real client honours Retry-After; a short pause keeps this one from spinning
+						Thread.sleep(5);
+					}
+				}
+				return null;
+			}));
+		}
+		for (int i = 0; i < BROWSE_CLIENTS; i++) {
+			futures.add(clients.submit(() -> {
+				while (running.get()) {
+					long start = System.nanoTime();
+					server.submit(() -> handle(filter, "/api/products", () -> Thread.sleep(BROWSE_WORK_MILLIS))).get();
+					browseNanos.add(System.nanoTime() - start);
+				}
+				return null;
+			}));
+		}
+
+		Thread.sleep(RUN_MILLIS);
+		running.set(false);
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		clients.shutdown();
+		server.shutdown();
+
+		List<Long> sorted = new ArrayList<>(browseNanos);
+		Collections.sort(sorted);
+		return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1) / 1_000_000.0;
+	}
+
+	private int handle(AdmissionControlFilter filter, String path, Work work) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		if (filter == null) {
+			work.run();
+		} else {
+			filter.doFilter(request, response, (req, res) -> {
+				try {
+					work.run();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+		return response.getStatus();
+	}
+
+	private interface Work {
+		void run() throws InterruptedException;
+	}
+}
@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { type AuthResponse, type Product, type Order } from './types';
+import { type AuthResponse, type Product, type Order, type OrderSummary, type Page, type ProductSearchResult, type ProductFacets, type OrderQuote, type CartItem, type StockHold } from './types';
 
 const API_BASE = 'http://localhost:8080/api';
 // const API_BASE = import.meta.env.VITE_API_BASE;
@@ -42,6 +42,12 @@ export const productAPI = {
   getById: (id: number): Promise<Product> =>
     api.get(`/products/${id}`).then(r => r.data),
   
+  facets: (params: { category?: string; minPrice?: string; maxPrice?: string; size?: string }): Promise<ProductFacets> =>
+    api.get('/products/facets', { params }).then(r => r.data),
+  
+  search: (q: string, page = 0, size = 100): Promise<ProductSearchResult> =>
+    api.get('/products/search', { params: { q, page, size } }).then(r => r.data),
+  
   create: (data: any): Promise<Product> =>
     api.post('/admin/products', data).then(r => r.data),
   
@@ -53,14 +59,27 @@ export const productAPI = {
 };
 
 export const orderAPI = {
-  create: (data: any): Promise<Order> =>
-    api.post('/orders', data).then(r => r.data),
+  // With an idempotency key, a resent request returns the first attempt's order instead of ordering twice
+  create: (data: any, idempotencyKey?: string): Promise<Order> =>
+    api.post('/orders', data, idempotencyKey ? { headers: { 'Idempotency-Key': idempotencyKey } } : undefined)
+      .then(r => r.data),
   
-  getUserOrders: (): Promise<Order[]> =>
-    api.get('/orders/user').then(r => r.data),
+  // Current prices and stock for a cart; writes nothing, works without login
+  quote: (items: CartItem[]): Promise<OrderQuote> =>
+    api.post('/orders/quote', { items }).then(r => r.data),
+
+  // Reserves the cart's stock while the customer fills in checkout; pass its id as holdId to create
+  placeHold: (items: CartItem[]): Promise<StockHold> =>
+    api.post('/orders/holds', { items }).then(r => r.data),
+
+  getUserOrders: (page = 0, size = 50): Promise<Page<OrderSummary>> =>
+    api.get('/orders/user', { params: { page, size } }).then(r => r.data),
+
+  getById: (id: number): Promise<Order> =>
+    api.get(`/orders/${id}`).then(r => r.data),
   
-  getAllOrders: (): Promise<Order[]> =>
-    api.get('/admin/orders').then(r => r.data),
+  getAllOrders: (page = 0, size = 50): Promise<Page<OrderSummary>> =>
+    api.get('/admin/orders', { params: { page, size } }).then(r => r.data),
   
   updateStatus: (id: number, status: string): Promise<Order> =>
     api.patch(`/admin/orders/${id}/status`, { status }).then(r => r.data),
@@ -1,5 +1,6 @@
 import React, { createContext, useContext, useEffect, useState } from 'react';
-import { type User, type Product, type CartItem } from './types';
+import { type User, type Product, type CartItem, type OrderQuote } from './types';
+import { orderAPI } from './api';
 
 interface AppContextType {
   user: User | null;
@@ -87,6 +88,40 @@ export const AppProvider: React.FC<{ children: React.ReactNode }> = ({ children
   );
 };
 
+// Re-prices the cart on the server whenever its lines change; null until the first answer
+export const useCartQuote = (cart: CartItem[]) => {
+  const [quote, setQuote] = useState<OrderQuote | null>(null);
+  const key = cart.map(item => `${item.productId}:${item.size}:${item.quantity}`).join('|');
+
+  useEffect(() => {
+    if (cart.length === 0) {
+      setQuote(null);
+      return;
+    }
+    let cancelled = false;
+    orderAPI.quote(cart.map(({ productId, size, quantity }) => ({ productId, size, quantity })))
+      .then(result => { if (!cancelled) setQuote(result); })
+      .catch(() => { if (!cancelled) setQuote(null); });
+    return () => { cancelled = true; };
+  }, [key]);
+
+  return quote;
+};
+
+const availabilityMessages: Record<string, string> = {
+  INSUFFICIENT_STOCK: 'Not enough stock',
+  SIZE_UNAVAILABLE: 'Size no longer available',
+  PRODUCT_NOT_FOUND: 'No longer sold',
+};
+
+export const quoteLineProblem = (quote: OrderQuote | null, productId: number, size: string) => {
+  const line = quote?.lines.find(l => l.productId === productId && l.size === size);
+  if (!line || line.availability === 'IN_STOCK') return null;
+  return line.availability === 'INSUFFICIENT_STOCK'
+    ? `${availabilityMessages.INSUFFICIENT_STOCK}: ${line.availableStock} left`
+    : availabilityMessages[line.availability];
+};
+
 export const useApp = () => {
   const context = useContext(AppContext);
   if (!context) throw new Error('useApp must be used within AppProvider');
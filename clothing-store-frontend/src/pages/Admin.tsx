@@ -1,12 +1,12 @@
 import React, { useState, useEffect } from 'react';
 import { productAPI, orderAPI } from '../api';
-import { type Product, type Order } from '../types';
+import { type Product, type OrderSummary } from '../types';
 import { useApp } from '../context';
 
 export const Admin: React.FC = () => {
   const { user } = useApp();
   const [products, setProducts] = useState<Product[]>([]);
-  const [orders, setOrders] = useState<Order[]>([]);
+  const [orders, setOrders] = useState<OrderSummary[]>([]);
   const [activeTab, setActiveTab] = useState<'products' | 'orders' | 'add-product'>('products');
   const [loading, setLoading] = useState(true);
   const [showAddProduct, setShowAddProduct] = useState(false);
@@ -35,7 +35,7 @@ export const Admin: React.FC = () => {
         orderAPI.getAllOrders()
       ]);
       setProducts(productsData);
-      setOrders(ordersData);
+      setOrders(ordersData.content);
     } catch (error) {
       console.error('Failed to load data:', error);
     } finally {
@@ -591,8 +591,8 @@ export const Admin: React.FC = () => {
                     <div>
                       <h3 className="text-lg font-bold text-gray-900 mb-1">Order #{order.id}</h3>
                       <div className="space-y-1 text-sm text-gray-600">
-                        <p>Customer: <span className="font-medium">{order.user.name}</span></p>
-                        <p>Email: <span className="font-medium">{order.user.email}</span></p>
+                        <p>Customer: <span className="font-medium">{order.customerName}</span></p>
+                        <p>Email: <span className="font-medium">{order.customerEmail}</span></p>
                         <p>Date: <span className="font-medium">{new Date(order.createdAt).toLocaleDateString()}</span></p>
                       </div>
                     </div>
@@ -613,16 +613,16 @@ export const Admin: React.FC = () => {
                   <div className="border-t border-gray-100 pt-6">
                     <h4 className="font-semibold text-gray-900 mb-4">Order Items</h4>
                     <div className="space-y-3">
-                      {order.items.map(item => (
-                        <div key={item.id} className="flex items-center justify-between p-4 bg-gray-50 rounded-xl">
+                      {order.items.map((item, index) => (
+                        <div key={index} className="flex items-center justify-between p-4 bg-gray-50 rounded-xl">
                           <div className="flex items-center space-x-4">
                             <img
-                              src={item.product.imageUrl || '/api/placeholder/50/50'}
-                              alt={item.product.name}
+                              src={item.imageUrl || '/api/placeholder/50/50'}
+                              alt={item.productName}
                               className="w-12 h-12 object-cover rounded-lg"
                             />
                             <div>
-                              <p className="font-medium text-gray-900">{item.product.name}</p>
+                              <p className="font-medium text-gray-900">{item.productName}</p>
                               <p className="text-sm text-gray-600">Quantity: {item.quantity}</p>
                             </div>
                           </div>
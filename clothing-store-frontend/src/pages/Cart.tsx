@@ -1,12 +1,16 @@
 import React from 'react';
 import { useNavigate } from 'react-router-dom';
-import { useApp } from '../context';
+import { useApp, useCartQuote, quoteLineProblem } from '../context';
 import { orderAPI } from '../api';
 
 export const Cart: React.FC = () => {
   const navigate = useNavigate();
   const { cart, removeFromCart, clearCart, getCartTotal } = useApp();
   const [loading, setLoading] = React.useState(false);
+  const quote = useCartQuote(cart);
+  const total = quote ? quote.total : getCartTotal();
+  const unitPrice = (productId: number, size: string, fallback: number) =>
+    quote?.lines.find(l => l.productId === productId && l.size === size)?.unitPrice ?? fallback;
 
   const handleCheckout = async () => {
     const address = prompt('Enter shipping address:');
@@ -121,16 +125,21 @@ export const Cart: React.FC = () => {
                     <p className="text-gray-600 text-sm line-clamp-2">
                       {item.product.description}
                     </p>
+                    {quoteLineProblem(quote, item.productId, item.size) && (
+                      <p className="text-red-600 text-sm font-medium mt-2">
+                        {quoteLineProblem(quote, item.productId, item.size)}
+                      </p>
+                    )}
                   </div>
 
                   {/* Price and Actions */}
                   <div className="text-right flex flex-col justify-between">
                     <div className="mb-4">
                       <p className="text-sm text-gray-500 mb-1">
-                        ${item.product.price} × {item.quantity}
+                        ${unitPrice(item.productId, item.size, item.product.price)} × {item.quantity}
                       </p>
                       <p className="text-2xl font-bold text-gray-900">
-                        ${(item.product.price * item.quantity).toFixed(2)}
+                        ${(unitPrice(item.productId, item.size, item.product.price) * item.quantity).toFixed(2)}
                       </p>
                     </div>
                     
@@ -162,7 +171,7 @@ export const Cart: React.FC = () => {
               <div className="space-y-4 mb-6">
                 <div className="flex justify-between items-center py-2">
                   <span className="text-gray-600">Subtotal ({cart.length} items)</span>
-                  <span className="font-semibold text-gray-900">${getCartTotal().toFixed(2)}</span>
+                  <span className="font-semibold text-gray-900">${total.toFixed(2)}</span>
                 </div>
                 
                 <div className="flex justify-between items-center py-2">
@@ -182,7 +191,7 @@ export const Cart: React.FC = () => {
                   <div className="flex justify-between items-center">
                     <span className="text-xl font-bold text-gray-900">Total</span>
                     <span className="text-2xl font-bold bg-gradient-to-r from-gray-900 to-gray-700 bg-clip-text text-transparent">
-                      ${getCartTotal().toFixed(2)}
+                      ${total.toFixed(2)}
                     </span>
                   </div>
                 </div>
@@ -191,7 +200,7 @@ export const Cart: React.FC = () => {
               <div className="space-y-4">
                 <button
                   onClick={() => navigate('/checkout')}
-                  disabled={loading}
+                  disabled={loading || (quote !== null && !quote.orderable)}
                   className="group w-full py-4 bg-gradient-to-r from-gray-800 to-gray-700 text-white font-bold text-lg rounded-xl shadow-lg hover:shadow-xl transform hover:-translate-y-0.5 transition-all duration-200 disabled:opacity-50 disabled:cursor-not-allowed overflow-hidden"
                 >
                   <div className="absolute inset-0 bg-gradient-to-r from-amber-400 to-orange-400 opacity-0 group-hover:opacity-100 transition-opacity duration-300"></div>
@@ -1,12 +1,30 @@
-import React, { useState } from 'react';
+import React, { useEffect, useMemo, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { useApp } from '../context';
+import { useApp, useCartQuote, quoteLineProblem } from '../context';
 import { orderAPI } from '../api';
+import { type StockHold } from '../types';
 
 export const Checkout: React.FC = () => {
   const navigate = useNavigate();
   const { cart, clearCart, getCartTotal, user } = useApp();
   const [loading, setLoading] = useState(false);
+  const quote = useCartQuote(cart);
+  const total = quote ? quote.total : getCartTotal();
+  const [hold, setHold] = useState<StockHold | null>(null);
+  const [holdError, setHoldError] = useState<string | null>(null);
+  const cartItems = cart.map(({ productId, size, quantity }) => ({ productId, size, quantity }));
+  const cartKey = cartItems.map(item => `${item.productId}:${item.size}:${item.quantity}`).join('|');
+
+  // One key per cart, so double submits and retries after a timeout place a single order
+  const idempotencyKey = useMemo(() => crypto.randomUUID(), [cartKey]);
+
+  // Hold the stock while the form is filled in; a new hold replaces the previous one server side
+  useEffect(() => {
+    if (cartItems.length === 0) return;
+    orderAPI.placeHold(cartItems)
+      .then(result => { setHold(result); setHoldError(null); })
+      .catch((error: any) => { setHold(null); setHoldError(error.response?.data?.message || 'Could not reserve your items'); });
+  }, [cartKey]);
   const [formData, setFormData] = useState({
     firstName: '',
     lastName: '',
@@ -35,12 +53,9 @@ export const Checkout: React.FC = () => {
 
       await orderAPI.create({
         shippingAddress,
-        items: cart.map(item => ({
-          productId: item.productId,
-          size: item.size,
-          quantity: item.quantity
-        }))
-      });
+        items: cartItems,
+        holdId: hold?.id
+      }, idempotencyKey);
 
       clearCart();
       alert('Order placed successfully!');
@@ -71,6 +86,12 @@ export const Checkout: React.FC = () => {
         {/* Shipping Form */}
         <div className="card">
           <h2 className="text-xl font-bold mb-6">Shipping Information</h2>
+          {hold && (
+            <p className="text-sm text-green-700 mb-4">
+              Your items are reserved until {new Date(hold.expiresAt).toLocaleTimeString()}.
+            </p>
+          )}
+          {holdError && <p className="text-sm text-red-600 mb-4">{holdError}</p>}
           
           <form onSubmit={handleSubmit} className="space-y-4">
             <div className="grid grid-cols-2 gap-4">
@@ -220,10 +241,10 @@ export const Checkout: React.FC = () => {
 
             <button
               type="submit"
-              disabled={loading}
+              disabled={loading || (quote !== null && !quote.orderable)}
               className="btn btn-primary w-full mt-6"
             >
-              {loading ? 'Placing Order...' : `Place Order - $${getCartTotal().toFixed(2)}`}
+              {loading ? 'Placing Order...' : `Place Order - $${total.toFixed(2)}`}
             </button>
           </form>
         </div>
@@ -244,9 +265,13 @@ export const Checkout: React.FC = () => {
                   <h4 className="font-medium text-sm">{item.product.name}</h4>
                   <p className="text-xs text-gray-600">Size: {item.size}</p>
                   <p className="text-xs text-gray-600">Qty: {item.quantity}</p>
+                  {quoteLineProblem(quote, item.productId, item.size) && (
+                    <p className="text-xs text-red-600">{quoteLineProblem(quote, item.productId, item.size)}</p>
+                  )}
                 </div>
                 <div className="text-sm font-medium">
-                  ${(item.product.price * item.quantity).toFixed(2)}
+                  ${(quote?.lines.find(l => l.productId === item.productId && l.size === item.size)?.lineTotal
+                    ?? item.product.price * item.quantity).toFixed(2)}
                 </div>
               </div>
             ))}
@@ -255,7 +280,7 @@ export const Checkout: React.FC = () => {
           <div className="border-t pt-4 space-y-2">
             <div className="flex justify-between">
               <span>Subtotal</span>
-              <span>${getCartTotal().toFixed(2)}</span>
+              <span>${total.toFixed(2)}</span>
             </div>
             <div className="flex justify-between">
               <span>Shipping</span>
@@ -267,7 +292,7 @@ export const Checkout: React.FC = () => {
             </div>
             <div className="border-t pt-2 flex justify-between font-bold text-lg">
               <span>Total</span>
-              <span>${getCartTotal().toFixed(2)}</span>
+              <span>${total.toFixed(2)}</span>
             </div>
           </div>
         </div>
@@ -1,12 +1,12 @@
 import React, { useState, useEffect } from 'react';
 import { orderAPI } from '../api';
-import { type Order } from '../types';
+import { type Order, type OrderSummary } from '../types';
 import { useApp } from '../context';
 import { OrderModal } from '../components/OrderModal';
 
 export const Orders: React.FC = () => {
   const { isAuthenticated } = useApp();
-  const [orders, setOrders] = useState<Order[]>([]);
+  const [orders, setOrders] = useState<OrderSummary[]>([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [selectedOrder, setSelectedOrder] = useState<Order | null>(null);
@@ -14,7 +14,7 @@ export const Orders: React.FC = () => {
   useEffect(() => {
     if (isAuthenticated) {
       orderAPI.getUserOrders()
-        .then(setOrders)
+        .then(page => setOrders(page.content))
         .catch(_err => setError('Failed to load orders'))
         .finally(() => setLoading(false));
     }
@@ -111,7 +111,7 @@ export const Orders: React.FC = () => {
               <div
                 key={order.id}
                 className="bg-white rounded-xl shadow-lg hover:shadow-xl transition-all duration-300 overflow-hidden cursor-pointer border border-gray-100 group"
-                onClick={() => setSelectedOrder(order)}
+                onClick={() => orderAPI.getById(order.id).then(setSelectedOrder).catch(console.error)}
               >
                 {/* Order Header */}
                 <div className="p-6 border-b border-gray-100 bg-gradient-to-r from-blue-50 to-indigo-50">
@@ -136,7 +136,7 @@ export const Orders: React.FC = () => {
                     </div>
                     <div className="text-right">
                       <p className="text-2xl font-bold text-blue-600">${order.totalPrice.toFixed(2)}</p>
-                      <p className="text-sm text-gray-500">{order.items.length} item{order.items.length > 1 ? 's' : ''}</p>
+                      <p className="text-sm text-gray-500">{order.itemCount} item{order.itemCount > 1 ? 's' : ''}</p>
                     </div>
                   </div>
 
@@ -169,15 +169,15 @@ export const Orders: React.FC = () => {
                 {/* Order Items Preview */}
                 <div className="p-6">
                   <div className="flex flex-wrap gap-3 mb-4">
-                    {order.items.slice(0, 3).map(item => (
-                      <div key={item.id} className="flex items-center gap-3 bg-gray-50 rounded-lg p-3 min-w-0">
+                    {order.items.slice(0, 3).map((item, index) => (
+                      <div key={index} className="flex items-center gap-3 bg-gray-50 rounded-lg p-3 min-w-0">
                         <img
-                          src={item.product.imageUrl || '/api/placeholder/40/40'}
-                          alt={item.product.name}
+                          src={item.imageUrl || '/api/placeholder/40/40'}
+                          alt={item.productName}
                           className="w-10 h-10 rounded-lg object-cover border"
                         />
                         <div className="min-w-0 flex-1">
-                          <p className="font-medium text-sm truncate">{item.product.name}</p>
+                          <p className="font-medium text-sm truncate">{item.productName}</p>
                           <p className="text-xs text-gray-500">Size: {item.size} • Qty: {item.quantity}</p>
                         </div>
                         <p className="text-sm font-bold text-blue-600">${(item.price * item.quantity).toFixed(2)}</p>
@@ -62,6 +62,9 @@ export const ProductDetail: React.FC = () => {
   };
 
   const sizes = getSizes(product.sizes);
+  const stockForSize = (size: string) =>
+    product.variants?.find(variant => variant.size === size)?.stock ?? product.quantityInStock;
+  const available = selectedSize ? stockForSize(selectedSize) : product.quantityInStock;
 
   const handleAddToCart = () => {
     if (!isAuthenticated) {
@@ -132,7 +135,7 @@ export const ProductDetail: React.FC = () => {
                   ${product.price}
                 </span>
                 <span className="text-gray-500 text-lg">
-                  {product.quantityInStock} available
+                  {available} available
                 </span>
               </div>
               
@@ -150,9 +153,15 @@ export const ProductDetail: React.FC = () => {
                     {sizes.map((size: string) => (
                       <button
                         key={size}
-                        onClick={() => setSelectedSize(size)}
+                        onClick={() => {
+                          setSelectedSize(size);
+                          setQuantity(Math.max(1, Math.min(quantity, stockForSize(size))));
+                        }}
+                        disabled={stockForSize(size) === 0}
                         className={`py-3 px-4 rounded-xl border-2 transition-all duration-200 font-medium ${
-                          selectedSize === size
+                          stockForSize(size) === 0
+                            ? 'border-gray-100 bg-gray-50 text-gray-300 line-through cursor-not-allowed'
+                            : selectedSize === size
                             ? 'border-amber-500 bg-amber-50 text-amber-800'
                             : 'border-gray-200 bg-white hover:border-gray-300 text-gray-700'
                         }`}
@@ -177,7 +186,7 @@ export const ProductDetail: React.FC = () => {
                     {quantity}
                   </span>
                   <button
-                    onClick={() => setQuantity(Math.min(product.quantityInStock, quantity + 1))}
+                    onClick={() => setQuantity(Math.min(available, quantity + 1))}
                     className="w-12 h-12 bg-white border-2 border-gray-200 rounded-xl hover:border-gray-300 transition-colors duration-200 flex items-center justify-center text-gray-600 hover:text-gray-800 font-bold"
                   >
                     +
@@ -194,14 +203,14 @@ export const ProductDetail: React.FC = () => {
 
               <button
                 onClick={handleAddToCart}
-                disabled={product.quantityInStock === 0}
+                disabled={available === 0}
                 className={`w-full py-4 rounded-xl font-bold text-lg transition-all duration-200 ${
-                  product.quantityInStock === 0
+                  available === 0
                     ? 'bg-gray-200 text-gray-500 cursor-not-allowed'
                     : 'bg-gradient-to-r from-gray-800 to-gray-700 text-white hover:shadow-lg transform hover:-translate-y-0.5 active:translate-y-0'
                 }`}
               >
-                {product.quantityInStock === 0 ? 'Out of Stock' : 'Add to Cart 🛒'}
+                {available === 0 ? 'Out of Stock' : 'Add to Cart 🛒'}
               </button>
             </div>
           </div>
@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import { productAPI } from '../api';
-import { type Product } from '../types';
+import { type Product, type ProductFacets } from '../types';
 
 export const Products: React.FC = () => {
   const [products, setProducts] = useState<Product[]>([]);
@@ -11,6 +11,8 @@ export const Products: React.FC = () => {
   const [categoryFilter, setCategoryFilter] = useState('');
   const [priceRange, setPriceRange] = useState({ min: '', max: '' });
   const [sortBy, setSortBy] = useState('name');
+  const [searchMatches, setSearchMatches] = useState<Set<number> | null>(null);
+  const [facets, setFacets] = useState<ProductFacets | null>(null);
 
   useEffect(() => {
     productAPI.getAll()
@@ -22,11 +24,31 @@ export const Products: React.FC = () => {
       .finally(() => setLoading(false));
   }, []);
 
+  useEffect(() => {
+    productAPI.facets({
+      minPrice: priceRange.min || undefined,
+      maxPrice: priceRange.max || undefined,
+    })
+      .then(setFacets)
+      .catch(console.error);
+  }, [priceRange]);
+
+  useEffect(() => {
+    if (!search.trim()) {
+      setSearchMatches(null);
+      return;
+    }
+    const timer = setTimeout(() => {
+      productAPI.search(search.trim())
+        .then((result) => setSearchMatches(new Set(result.hits.map(hit => hit.product.id))))
+        .catch(console.error);
+    }, 200);
+    return () => clearTimeout(timer);
+  }, [search]);
+
   useEffect(() => {
     let filtered = products.filter(p => {
-      const matchesSearch = p.name.toLowerCase().includes(search.toLowerCase()) ||
-                           p.description?.toLowerCase().includes(search.toLowerCase()) ||
-                           p.category.toLowerCase().includes(search.toLowerCase());
+      const matchesSearch = !searchMatches || searchMatches.has(p.id);
       
       const matchesCategory = !categoryFilter || p.category === categoryFilter;
       
@@ -52,9 +74,9 @@ export const Products: React.FC = () => {
     });
 
     setFilteredProducts(filtered);
-  }, [products, search, categoryFilter, priceRange, sortBy]);
+  }, [products, searchMatches, categoryFilter, priceRange, sortBy]);
 
-  const categories = [...new Set(products.map(p => p.category))];
+  const categories = facets?.categories ?? [];
 
   if (loading) {
     return (
@@ -107,8 +129,8 @@ export const Products: React.FC = () => {
                   className="w-full px-4 py-3 bg-white border border-gray-200 rounded-xl focus:outline-none focus:ring-2 focus:ring-amber-500 focus:border-transparent transition-all duration-200"
                 >
                   <option value="">All Categories</option>
-                  {categories.map(category => (
-                    <option key={category} value={category}>{category}</option>
+                  {categories.map(({ category, count }) => (
+                    <option key={category} value={category}>{category} ({count})</option>
                   ))}
                 </select>
               </div>
@@ -15,10 +15,16 @@ export interface Product {
   imageUrl?: string;
   sizes: string;
   quantityInStock: number;
+  variants?: ProductVariant[];
   createdAt: string;
   updatedAt: string;
 }
 
+export interface ProductVariant {
+  size: string;
+  stock: number;
+}
+
 export interface OrderItem {
   id: number;
   product: Product;
@@ -38,6 +44,81 @@ export interface Order {
   updatedAt: string;
 }
 
+export interface OrderLineSummary {
+  productId: number;
+  productName: string;
+  imageUrl?: string;
+  size: string;
+  quantity: number;
+  price: number;
+}
+
+export interface OrderSummary {
+  id: number;
+  status: 'PLACED' | 'PACKED' | 'DELIVERED';
+  totalPrice: number;
+  shippingAddress: string;
+  createdAt: string;
+  customerName: string;
+  customerEmail: string;
+  itemCount: number;
+  items: OrderLineSummary[];
+}
+
+export interface ProductSearchHit {
+  product: Product;
+  score: number;
+  highlights: { field: string; start: number; end: number }[];
+}
+
+export interface ProductSearchResult {
+  hits: ProductSearchHit[];
+  total: number;
+  page: number;
+  size: number;
+}
+
+export interface ProductFacets {
+  total: number;
+  inStock: number;
+  categories: { category: string; count: number }[];
+  priceBuckets: { min: number; max: number; count: number }[];
+  sizes: { size: string; count: number; inStock: number }[];
+}
+
+export interface OrderQuoteLine {
+  productId: number;
+  productName: string | null;
+  size: string;
+  quantity: number;
+  unitPrice: number | null;
+  lineTotal: number | null;
+  availableStock: number | null;
+  availability: 'IN_STOCK' | 'INSUFFICIENT_STOCK' | 'SIZE_UNAVAILABLE' | 'PRODUCT_NOT_FOUND';
+}
+
+export interface OrderQuote {
+  lines: OrderQuoteLine[];
+  total: number;
+  orderable: boolean;
+}
+
+export interface StockHold {
+  id: string;
+  expiresAt: string;
+  items: CartItem[];
+}
+
+export interface Page<T> {
+  content: T[];
+  page: {
+    size: number;
+    number: number;
+    totalElements: number;
+    totalPages: number;
+  };
+}
+
 export interface AuthResponse {
   token: string;
   user: User;
@@ -52,4 +133,5 @@ export interface CartItem {
 export interface CreateOrderRequest {
   shippingAddress: string;
   items: CartItem[];
+  holdId?: string;
 }